@@ -0,0 +1,182 @@
+package com.booking.booking.client;
+
+import com.booking.booking.exception.PaymentGatewayUnavailableException;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs outbound payment gateway calls off the request thread, one bounded pool per gateway:
+ * <ul>
+ *     <li>bulkhead: at most {@code payment.gateway.max-concurrent} calls in flight, extra calls are rejected at once;</li>
+ *     <li>timeout: the caller waits at most {@code payment.gateway.timeout-ms}, on top of the Feign connect/read timeouts;</li>
+ *     <li>circuit breaker: after {@code failure-threshold} consecutive failures the gateway is skipped for
+ *     {@code open-ms}, then a single trial call decides whether it closes again.</li>
+ * </ul>
+ * Latency is recorded in {@code payment.gateway.latency} per gateway and outcome.
+ */
+@Component
+@Slf4j(topic = "PAYMENT-GATEWAY")
+public class PaymentGatewayExecutor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Gateway> gateways = new ConcurrentHashMap<>();
+
+    @Value("${payment.gateway.max-concurrent:10}")
+    private int maxConcurrent;
+
+    @Value("${payment.gateway.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${payment.gateway.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${payment.gateway.open-ms:30000}")
+    private long openMs;
+
+    public PaymentGatewayExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T call(String gatewayName, Supplier<T> call) {
+        Gateway gateway = gateways.computeIfAbsent(gatewayName, this::newGateway);
+        if (!gateway.breaker.tryAcquire()) {
+            meterRegistry.counter("payment.gateway.rejected", "gateway", gatewayName, "reason", "open").increment();
+            throw new PaymentGatewayUnavailableException("Cổng thanh toán " + gatewayName + " tạm thời không khả dụng, vui lòng thử lại sau");
+        }
+
+        Future<T> future;
+        try {
+            future = gateway.executor.submit(call::get);
+        } catch (RejectedExecutionException e) {
+            gateway.breaker.onRejected();
+            meterRegistry.counter("payment.gateway.rejected", "gateway", gatewayName, "reason", "bulkhead").increment();
+            throw new PaymentGatewayUnavailableException("Cổng thanh toán " + gatewayName + " đang quá tải, vui lòng thử lại sau");
+        }
+
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            outcome = "success";
+            gateway.breaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            future.cancel(true);
+            gateway.breaker.onFailure();
+            throw new PaymentGatewayUnavailableException("Cổng thanh toán " + gatewayName + " phản hồi quá chậm", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            gateway.breaker.onRejected();
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayUnavailableException("Cuộc gọi tới " + gatewayName + " bị gián đoạn", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // a 4xx is our request's fault, the gateway itself is healthy
+            if (cause instanceof FeignException fe && fe.status() >= 400 && fe.status() < 500) {
+                outcome = "client_error";
+                gateway.breaker.onSuccess();
+            } else {
+                gateway.breaker.onFailure();
+            }
+            log.warn("Lỗi khi gọi {}: {}", gatewayName, cause.getMessage());
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new PaymentGatewayUnavailableException("Lỗi khi gọi cổng thanh toán " + gatewayName, cause);
+        } finally {
+            gateway.timer(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        gateways.values().forEach(gateway -> gateway.executor.shutdownNow());
+    }
+
+    private Gateway newGateway(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "gateway-" + name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return new Gateway(name, executor, new CircuitBreaker(name));
+    }
+
+    private class Gateway {
+        private final String name;
+        private final ThreadPoolExecutor executor;
+        private final CircuitBreaker breaker;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        private Gateway(String name, ThreadPoolExecutor executor, CircuitBreaker breaker) {
+            this.name = name;
+            this.executor = executor;
+            this.breaker = breaker;
+        }
+
+        private Timer timer(String outcome) {
+            return timers.computeIfAbsent(outcome, o -> Timer.builder("payment.gateway.latency")
+                    .tag("gateway", name)
+                    .tag("outcome", o)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private class CircuitBreaker {
+        private final String name;
+        private int consecutiveFailures;
+        private long openUntil;
+        private boolean trialInFlight;
+
+        private CircuitBreaker(String name) {
+            this.name = name;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (openUntil == 0) {
+                return true;
+            }
+            if (System.currentTimeMillis() < openUntil || trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            if (openUntil != 0) {
+                log.info("Cổng thanh toán {} đã hoạt động trở lại", name);
+            }
+            consecutiveFailures = 0;
+            openUntil = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure() {
+            trialInFlight = false;
+            if (++consecutiveFailures >= failureThreshold) {
+                openUntil = System.currentTimeMillis() + openMs;
+                log.warn("Tạm ngưng gọi {} trong {}ms sau {} lỗi liên tiếp", name, openMs, consecutiveFailures);
+            }
+        }
+
+        synchronized void onRejected() {
+            trialInFlight = false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.booking.booking.common;
+
+public enum ReindexJobStatus {
+  RUNNING,
+  COMPLETED,
+  CANCELLED,
+  FAILED
+}
@@ -26,6 +26,9 @@ public class AppConfig {
     @Value("${cloudinary.api_secret}")
     private String cloudApiSecret;
 
+    @Value("${cloudinary.upload_prefix:}")
+    private String cloudUploadPrefix;
+
     @Bean
     public ModelMapper modelMapper() {
         return new ModelMapper();
@@ -49,6 +52,9 @@ public class AppConfig {
         config.put("api_key", cloudApiKey);
         config.put("api_secret", cloudApiSecret);
         config.put("secure", true);
+        if (!cloudUploadPrefix.isBlank()) {
+            config.put("upload_prefix", cloudUploadPrefix);
+        }
         return new Cloudinary(config);
     }
 }
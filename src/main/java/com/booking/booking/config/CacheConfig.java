@@ -1,5 +1,7 @@
 package com.booking.booking.config;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCustomizer;
 import org.springframework.cache.CacheManager;
@@ -35,12 +37,19 @@ public class CacheConfig {
 //        return new SimpleKeyGenerator();
 //    }
 
+    /**
+     * The serializer's own ObjectMapper knows nothing about {@code java.time}, so cached values with a
+     * {@code LocalDate} (e.g. the occupancy reports) would fail to serialize without the JSR-310 module.
+     */
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer()
+                .configure(mapper -> mapper.registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
         return RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(60))
                 .disableCachingNullValues()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
     }
 
     @Bean
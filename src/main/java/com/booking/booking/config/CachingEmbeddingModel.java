@@ -0,0 +1,50 @@
+package com.booking.booking.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+
+/**
+ * Remembers the embeddings of recent single-text queries. A chat question is embedded by the answer cache and then
+ * again by the vector store's similarity search; with this in front of the model the second call is free. Batch calls
+ * used for indexing go straight to the delegate.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final Cache<String, float[]> queries;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, int capacity, Duration ttl) {
+        this.delegate = delegate;
+        this.queries = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public float[] embed(String text) {
+        // callers normalize in place, so neither the cached array nor the one handed out may be shared
+        return queries.get(text, delegate::embed).clone();
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return delegate.call(request);
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
@@ -40,4 +40,14 @@ public class KafkaConsumerConfig {
     factory.setConsumerFactory(consumerFactory);
     return factory;
   }
+
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, String> batchKafkaListenerContainerFactory(
+      ConsumerFactory<String, String> consumerFactory) {
+    ConcurrentKafkaListenerContainerFactory<String, String>
+        factory = new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory);
+    factory.setBatchListener(true);
+    return factory;
+  }
 }
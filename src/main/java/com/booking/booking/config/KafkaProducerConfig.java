@@ -1,6 +1,8 @@
 package com.booking.booking.config;
 
 
+import com.booking.booking.service.CloudinaryService;
+import com.booking.booking.service.ImageUploadService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
@@ -31,6 +33,11 @@ public class KafkaProducerConfig {
     configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
     configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
     configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+    // the outbox relay sends in batches: let the producer group them, without reordering on retry
+    configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+    configProps.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+    configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
 
 //        if ("prod".equals(activeProfile)) {
 //            configProps.put("security.protocol", "SSL");
@@ -50,4 +57,15 @@ public class KafkaProducerConfig {
   public NewTopic confirmAccount() {
     return new NewTopic("confirm-account-topic", 3, (short) 1);
   }
+
+  @Bean
+  public NewTopic uploadImage() {
+    // one partition per image upload worker
+    return new NewTopic(ImageUploadService.TOPIC, 4, (short) 1);
+  }
+
+  @Bean
+  public NewTopic deleteImageDeadLetter() {
+    return new NewTopic(CloudinaryService.DELETE_DLT, 1, (short) 1);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,433 @@
+package com.booking.booking.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process {@link VectorStore} for deployments without pgvector.
+ * <p>
+ * Normalized vectors live in fixed-size slots of a memory-mapped file ({@code vectors.bin}); ids, text and metadata
+ * are kept in memory and persisted in an append-only journal ({@code documents.jsonl}) that is replayed on start and
+ * compacted when mostly dead. Search is an exact scan with cosine similarity, filtering on metadata before scoring,
+ * which stays within a few milliseconds for catalogs of tens of thousands of documents.
+ */
+@Slf4j(topic = "LOCAL-VECTOR-STORE")
+public class LocalVectorStore implements VectorStore, AutoCloseable {
+
+    private static final int MAGIC = 0x42564543;
+    private static final int HEADER_BYTES = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1000;
+
+    private final EmbeddingModel embeddingModel;
+    private final Path vectorFile;
+    private final Path journalFile;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+    private int deadRecords;
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private FloatBuffer vectors;
+    private int dimensions;
+    private int capacity;
+    private BufferedWriter journal;
+
+    public LocalVectorStore(EmbeddingModel embeddingModel, Path directory) {
+        this.embeddingModel = embeddingModel;
+        this.vectorFile = directory.resolve("vectors.bin");
+        this.journalFile = directory.resolve("documents.jsonl");
+        try {
+            Files.createDirectories(directory);
+            if (Files.exists(vectorFile)) {
+                openVectors(0);
+            }
+            replayJournal();
+            if (deadRecords > MIN_DEAD_FOR_COMPACTION && deadRecords > entries.size()) {
+                compact();
+            }
+            journal = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open local vector store at " + directory, e);
+        }
+        log.info("Local vector store at {}: {} documents, {} dimensions", directory, entries.size(), dimensions);
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        List<float[]> embeddings = embeddingModel.embed(documents.stream().map(Document::getText).toList());
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < documents.size(); i++) {
+                Document doc = documents.get(i);
+                float[] vector = normalize(embeddings.get(i));
+                if (dimensions == 0) {
+                    openVectors(vector.length);
+                } else if (vector.length != dimensions) {
+                    throw new IllegalStateException("Embedding has " + vector.length + " dimensions, store has "
+                            + dimensions + "; delete " + vectorFile.getParent() + " to rebuild it");
+                }
+
+                Entry existing = entries.get(doc.getId());
+                int slot = existing != null ? existing.slot() : allocateSlot();
+                vectors.put(slot * dimensions, vector);
+                Entry entry = new Entry(doc.getId(), doc.getText(), new HashMap<>(doc.getMetadata()), slot);
+                entries.put(doc.getId(), entry);
+                if (existing != null) {
+                    deadRecords++;
+                }
+                appendJournal(Map.of("op", "put", "id", entry.id(), "slot", slot,
+                        "text", entry.text() == null ? "" : entry.text(), "metadata", entry.metadata()));
+            }
+            journal.flush();
+            mapped.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(List<String> ids) {
+        lock.writeLock().lock();
+        try {
+            for (String id : ids) {
+                Entry removed = entries.remove(id);
+                if (removed != null) {
+                    freeSlots.push(removed.slot());
+                    deadRecords += 2;
+                    appendJournal(Map.of("op", "del", "id", id));
+                }
+            }
+            journal.flush();
+            if (deadRecords > MIN_DEAD_FOR_COMPACTION && deadRecords > entries.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        List<String> ids;
+        lock.readLock().lock();
+        try {
+            ids = entries.values().stream()
+                    .filter(entry -> matches(filterExpression, entry.metadata()))
+                    .map(Entry::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        delete(ids);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        float[] query = normalize(embeddingModel.embed(request.getQuery()));
+        Filter.Expression filter = request.getFilterExpression();
+        PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+
+        lock.readLock().lock();
+        try {
+            if (dimensions == 0 || query.length != dimensions) {
+                return List.of();
+            }
+            for (Entry entry : entries.values()) {
+                if (filter != null && !matches(filter, entry.metadata())) {
+                    continue;
+                }
+                double score = dot(entry.slot() * dimensions, query);
+                if (score < request.getSimilarityThreshold()) {
+                    continue;
+                }
+                if (top.size() < request.getTopK()) {
+                    top.add(new Scored(entry, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Scored(entry, score));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+        List<Document> result = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            Map<String, Object> metadata = new HashMap<>(scored.entry().metadata());
+            metadata.put("distance", 1 - scored.score());
+            result.add(Document.builder()
+                    .id(scored.entry().id())
+                    .text(scored.entry().text())
+                    .metadata(metadata)
+                    .score(scored.score())
+                    .build());
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (journal != null) {
+                journal.close();
+            }
+            if (mapped != null) {
+                mapped.force();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates a Spring AI filter expression against document metadata; numbers compare by value.
+     */
+    static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return matches(group.content(), metadata);
+        }
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+            case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+            case NOT -> !matches(expression.left(), metadata);
+            case EQ -> compare(actual(expression, metadata), expected(expression)) == 0;
+            case NE -> compare(actual(expression, metadata), expected(expression)) != 0;
+            case GT -> compare(actual(expression, metadata), expected(expression)) > 0;
+            case GTE -> compare(actual(expression, metadata), expected(expression)) >= 0;
+            case LT -> compare(actual(expression, metadata), expected(expression)) < 0;
+            case LTE -> compare(actual(expression, metadata), expected(expression)) <= 0;
+            case IN -> contains(expected(expression), actual(expression, metadata));
+            case NIN -> !contains(expected(expression), actual(expression, metadata));
+            default -> throw new IllegalArgumentException("Unsupported filter operation: " + expression.type());
+        };
+    }
+
+    private static Object actual(Filter.Expression expression, Map<String, Object> metadata) {
+        String key = ((Filter.Key) expression.left()).key();
+        if (key.length() > 1 && (key.startsWith("'") || key.startsWith("\""))) {
+            key = key.substring(1, key.length() - 1);
+        }
+        return metadata.get(key);
+    }
+
+    private static Object expected(Filter.Expression expression) {
+        return ((Filter.Value) expression.right()).value();
+    }
+
+    private static boolean contains(Object values, Object actual) {
+        if (values instanceof Collection<?> collection) {
+            for (Object value : collection) {
+                if (compare(actual, value) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return compare(actual, values) == 0;
+    }
+
+    /**
+     * Missing values never compare equal and sort below everything, so range filters exclude them.
+     */
+    private static int compare(Object actual, Object expected) {
+        if (actual == null || expected == null) {
+            return actual == expected ? 0 : -2;
+        }
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return Double.compare(a.doubleValue(), b.doubleValue());
+        }
+        return actual.toString().compareTo(expected.toString());
+    }
+
+    private double dot(int offset, float[] query) {
+        double sum = 0;
+        for (int i = 0; i < query.length; i++) {
+            sum += vectors.get(offset + i) * query[i];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        float[] result = vector.clone();
+        if (norm > 0) {
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < result.length; i++) {
+                result[i] *= inv;
+            }
+        }
+        return result;
+    }
+
+    private int allocateSlot() throws IOException {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (nextSlot >= capacity) {
+            remap(capacity * 2);
+        }
+        return nextSlot++;
+    }
+
+    /**
+     * Opens the vector file; {@code newDimensions} is 0 when the file already exists and its header is authoritative.
+     */
+    private void openVectors(int newDimensions) throws IOException {
+        channel = FileChannel.open(vectorFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (newDimensions == 0) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalStateException(vectorFile + " is not a vector store file");
+            }
+            dimensions = header.getInt(8);
+            int slots = (int) ((channel.size() - HEADER_BYTES) / (dimensions * 4L));
+            remap(Math.max(INITIAL_CAPACITY, slots));
+        } else {
+            dimensions = newDimensions;
+            remap(INITIAL_CAPACITY);
+            mapped.putInt(0, MAGIC);
+            mapped.putInt(4, 1);
+            mapped.putInt(8, dimensions);
+        }
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        if (mapped != null) {
+            mapped.force();
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) newCapacity * dimensions * 4);
+        mapped.order(ByteOrder.LITTLE_ENDIAN);
+        vectors = mapped.slice(HEADER_BYTES, newCapacity * dimensions * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        capacity = newCapacity;
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalFile)) {
+            return;
+        }
+        Set<Integer> used = new HashSet<>();
+        int maxSlot = -1;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Map<String, Object> record;
+                try {
+                    record = mapper.readValue(line, new TypeReference<>() {
+                    });
+                } catch (IOException e) {
+                    // a torn last line from a crash; everything before it is intact
+                    log.warn("Bỏ qua dòng journal không hợp lệ: {}", e.getMessage());
+                    continue;
+                }
+                String id = (String) record.get("id");
+                Entry previous;
+                if ("put".equals(record.get("op"))) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> metadata = (Map<String, Object>) record.get("metadata");
+                    int slot = ((Number) record.get("slot")).intValue();
+                    previous = entries.put(id, new Entry(id, (String) record.get("text"), metadata, slot));
+                    used.add(slot);
+                    maxSlot = Math.max(maxSlot, slot);
+                } else {
+                    previous = entries.remove(id);
+                    deadRecords++;
+                }
+                if (previous != null) {
+                    deadRecords++;
+                    if (entries.get(id) == null || entries.get(id).slot() != previous.slot()) {
+                        used.remove(previous.slot());
+                    }
+                }
+            }
+        }
+        nextSlot = maxSlot + 1;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (!used.contains(slot)) {
+                freeSlots.push(slot);
+            }
+        }
+    }
+
+    private void appendJournal(Map<String, Object> record) throws IOException {
+        journal.write(mapper.writeValueAsString(record));
+        journal.newLine();
+    }
+
+    private void compact() throws IOException {
+        Path tmp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Entry entry : entries.values()) {
+                writer.write(mapper.writeValueAsString(Map.of("op", "put", "id", entry.id(), "slot", entry.slot(),
+                        "text", entry.text() == null ? "" : entry.text(), "metadata", entry.metadata())));
+                writer.newLine();
+            }
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        Files.move(tmp, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (journal != null) {
+            journal = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        log.info("Compacted vector store journal: {} documents, {} dead records dropped", entries.size(), deadRecords);
+        deadRecords = 0;
+    }
+
+    private record Entry(String id, String text, Map<String, Object> metadata, int slot) {
+    }
+
+    private record Scored(Entry entry, double score) {
+    }
+}
@@ -2,15 +2,23 @@ package com.booking.booking.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -30,5 +38,42 @@ public class RAGConfiguration {
         return executor;
     }
 
+    /**
+     * Runs chat streams apart from indexing and @Async work, one thread per {@code rag.chat.max-streams} slot; the
+     * small queue only absorbs a stream that starts while the previous holder of its slot is still winding down.
+     */
+    @Bean
+    public TaskExecutor chatStreamExecutor(@Value("${rag.chat.max-streams:4}") int maxStreams) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxStreams);
+        executor.setMaxPoolSize(maxStreams);
+        executor.setQueueCapacity(maxStreams);
+        executor.setThreadNamePrefix("chat-");
+        executor.initialize();
+        return executor;
+    }
 
-}
\ No newline at end of file
+    /**
+     * Remembers recent question embeddings, so a chat question is embedded once for both the answer cache and the
+     * vector search. It is a separate bean next to the auto-configured model, which stays injectable by its own type;
+     * being primary, it is what the vector store gets, and only its single-text calls are cached.
+     */
+    @Bean
+    @Primary
+    public CachingEmbeddingModel queryEmbeddingModel(
+            EmbeddingModel embeddingModel,
+            @Value("${rag.query-embedding-cache.capacity:256}") int capacity,
+            @Value("${rag.query-embedding-cache.ttl-minutes:5}") long ttlMinutes) {
+        return new CachingEmbeddingModel(embeddingModel, capacity, Duration.ofMinutes(ttlMinutes));
+    }
+
+    /**
+     * In-process vector store for deployments without pgvector; selecting it also disables the pgvector auto-configuration.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.ai.vectorstore.type", havingValue = "local")
+    public VectorStore localVectorStore(@Qualifier("queryEmbeddingModel") EmbeddingModel embeddingModel,
+                                        @Value("${rag.vectorstore.local.path:./data/vector-store}") String path) {
+        return new LocalVectorStore(embeddingModel, Path.of(path));
+    }
+}
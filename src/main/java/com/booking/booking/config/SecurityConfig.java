@@ -47,6 +47,9 @@ public class SecurityConfig {
             "/api/payment/callback/**",
             "/api/ai-chat/**",
             "/api/payment/momo-return",
+            "/api/payment/momo-ipn",
+            "/api/payment/vnpay-return",
+            "/sim/**",
             "/api/v1/users/active-account/**",
             "/api/v1/hotels/search"
     };
@@ -69,7 +72,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> {
                     auth.requestMatchers(PUBLIC_API).permitAll()
-                            .requestMatchers(HttpMethod.GET, "/api/v1/rooms/**", "/api/v1/hotels/**").permitAll();
+                            .requestMatchers(HttpMethod.GET, "/api/v1/rooms/**", "/api/v1/hotels/**", "/api/v1/images/staged/**").permitAll();
 
                     if (!"prod".equals(activeProfile)) {
                         auth.requestMatchers(SWAGGER_API).permitAll();
@@ -0,0 +1,98 @@
+package com.booking.booking.config;
+
+import com.booking.booking.common.TokenType;
+import com.booking.booking.common.UserType;
+import com.booking.booking.exception.AccessDeniedException;
+import com.booking.booking.model.User;
+import com.booking.booking.service.UserServiceDetail;
+import com.booking.booking.service.interfaces.JwtService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.security.Principal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Guards the live dashboard topics. A client that wants them sends its access token in the {@code Authorization}
+ * header of the CONNECT frame; the handshake cookie alone is not enough, so a page on another origin cannot ride the
+ * user's session. {@code /topic/dashboard/global} is for admins, {@code /topic/dashboard/hotel/{id}} also for the
+ * managers and staff of that hotel, the same scope the dashboard REST endpoints apply. Other destinations, and
+ * sessions without a token, behave as before.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j(topic = "STOMP-AUTH")
+public class StompAuthInterceptor implements ChannelInterceptor {
+
+    private static final String DASHBOARD_TOPICS = "/topic/dashboard/";
+    private static final Pattern HOTEL_TOPIC = Pattern.compile("/topic/dashboard/hotel/(\\d+)");
+
+    private final JwtService jwtService;
+    private final UserServiceDetail userServiceDetail;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            String authHeader = accessor.getFirstNativeHeader(AUTHORIZATION);
+            if (StringUtils.hasText(authHeader)) {
+                accessor.setUser(authenticate(authHeader));
+            }
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(accessor.getUser(), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String authHeader) {
+        if (!authHeader.startsWith("Bearer ")) {
+            throw new AccessDeniedException("Invalid access token");
+        }
+        try {
+            String username = jwtService.extractUsername(authHeader.substring(7), TokenType.ACCESS_TOKEN);
+            var user = userServiceDetail.UserDetailsService().loadUserByUsername(username);
+            return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        } catch (RuntimeException e) {
+            log.warn("Từ chối kết nối STOMP: {}", e.getMessage());
+            throw new AccessDeniedException("Invalid access token");
+        }
+    }
+
+    private void authorizeSubscription(Principal principal, String destination) {
+        if (destination == null || !destination.startsWith(DASHBOARD_TOPICS)) {
+            return;
+        }
+        if (!(principal instanceof UsernamePasswordAuthenticationToken auth) || !(auth.getPrincipal() instanceof User user)) {
+            throw new AccessDeniedException("Not authenticated");
+        }
+        UserType type = user.getType();
+        if (type == UserType.SYSTEM_ADMIN || type == UserType.ADMIN) {
+            return;
+        }
+        Matcher matcher = HOTEL_TOPIC.matcher(destination);
+        boolean ownHotel = matcher.matches()
+                && (type == UserType.MANAGER || type == UserType.STAFF)
+                && user.getHotel() != null
+                && user.getHotel().getId().equals(Long.valueOf(matcher.group(1)));
+        if (!ownHotel) {
+            log.warn("{} không được phép theo dõi {}", user.getUsername(), destination);
+            throw new AccessDeniedException("Not allowed to subscribe to " + destination);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.booking.booking.config;
 
-import com.booking.booking.service.HotelRAGService;
+import com.booking.booking.exception.DuplicateResourceException;
+import com.booking.booking.service.ReindexJobManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -12,15 +13,17 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class VectorStoreInitializer {
 
-    private final HotelRAGService hotelRAGService;
+    private final ReindexJobManager reindexJobManager;
 
     @EventListener(ApplicationReadyEvent.class)
     public void initializeVectorStore() {
         log.info("Ứng dụng đã sẵn sàng, bắt đầu khởi tạo vector store...");
         
         try {
-            hotelRAGService.indexAllHotels();
-            log.info("Khởi tạo vector store thành công!");
+            String jobId = reindexJobManager.start(false).getJobId();
+            log.info("Đã khởi chạy job khởi tạo vector store {}", jobId);
+        } catch (DuplicateResourceException e) {
+            log.info("Đã có job reindex đang chạy, bỏ qua khởi tạo");
         } catch (Exception e) {
             log.error("Lỗi khi khởi tạo vector store", e);
             // Không throw exception để không làm crash ứng dụng
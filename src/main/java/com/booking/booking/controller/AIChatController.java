@@ -1,15 +1,23 @@
 package com.booking.booking.controller;
 
+import com.booking.booking.dto.response.ResponseSuccess;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.service.ChatStreamService;
 import com.booking.booking.service.EnhancedAIChatService;
+import com.booking.booking.service.HotelIndexService;
 import com.booking.booking.service.HotelRAGService;
+import com.booking.booking.service.ReindexJobManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -24,14 +32,32 @@ public class AIChatController {
 
     private final EnhancedAIChatService chatService;
     private final VectorStore vectorStore;
-    private final HotelRAGService hotelRAGService;
+    private final HotelIndexService hotelIndexService;
+    private final ChatStreamService chatStreamService;
+    private final ReindexJobManager reindexJobManager;
+
+    @PostMapping("/reindex")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseSuccess startReindex(@RequestParam(defaultValue = "false") boolean force) {
+        return new ResponseSuccess(HttpStatus.ACCEPTED, "Reindex job started", reindexJobManager.start(force));
+    }
 
     @GetMapping("/reindex")
-    public ResponseEntity<String> reindex() {
-        long startTime = System.currentTimeMillis();
-        hotelRAGService.indexAllHotels();
-        long endTime = System.currentTimeMillis();
-        return ResponseEntity.ok("Đã reindex khách sạn vào vector store trong " + (endTime - startTime) + "ms");
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseSuccess getLatestReindex() {
+        return new ResponseSuccess(HttpStatus.OK, "Get reindex job successfully", reindexJobManager.getLatest());
+    }
+
+    @GetMapping("/reindex/{jobId}")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseSuccess getReindex(@PathVariable String jobId) {
+        return new ResponseSuccess(HttpStatus.OK, "Get reindex job successfully", reindexJobManager.getJob(jobId));
+    }
+
+    @DeleteMapping("/reindex/{jobId}")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseSuccess cancelReindex(@PathVariable String jobId) {
+        return new ResponseSuccess(HttpStatus.ACCEPTED, "Reindex job cancellation requested", reindexJobManager.cancel(jobId));
     }
 
     @GetMapping("/warmup")
@@ -112,6 +138,13 @@ public class AIChatController {
     }
 
 
+    @GetMapping(value = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter askQuestionStream(@RequestParam String question) {
+        if (question.trim().isEmpty()) {
+            throw new BadRequestException("Câu hỏi không được để trống");
+        }
+        return chatStreamService.stream(question);
+    }
 
     //    @PostMapping("/refresh")
     //    @PreAuthorize("hasRole('ADMIN')")
@@ -129,21 +162,21 @@ public class AIChatController {
     //        }
     //    }
 
-//    @PostMapping("/refresh/{hotelId}")
-//    @PreAuthorize("hasRole('ADMIN')")
-//    public ResponseEntity<Map<String, String>> refreshHotelData(@PathVariable Long hotelId) {
-//        try {
-//            chatService.refreshHotelData(hotelId);
-//            return ResponseEntity.ok(Map.of(
-//                    "message", "Đã làm mới dữ liệu khách sạn ID: " + hotelId,
-//                    "timestamp", Instant.now().toString()
-//            ));
-//        } catch (Exception e) {
-//            log.error("Lỗi khi làm mới dữ liệu khách sạn {}", hotelId, e);
-//            return ResponseEntity.internalServerError()
-//                    .body(Map.of("error", "Lỗi khi làm mới dữ liệu khách sạn"));
-//        }
-//    }
+    @PostMapping("/refresh/{hotelId}")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseEntity<Map<String, String>> refreshHotelData(@PathVariable Long hotelId) {
+        try {
+            hotelIndexService.reindexHotel(hotelId);
+            return ResponseEntity.ok(Map.of(
+                    "message", "Đã làm mới dữ liệu khách sạn ID: " + hotelId,
+                    "timestamp", Instant.now().toString()
+            ));
+        } catch (Exception e) {
+            log.error("Lỗi khi làm mới dữ liệu khách sạn {}", hotelId, e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Lỗi khi làm mới dữ liệu khách sạn"));
+        }
+    }
 
     public static class ChatRequest {
         private String question;
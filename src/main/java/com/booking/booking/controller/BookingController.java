@@ -1,9 +1,11 @@
 package com.booking.booking.controller;
 
+import com.booking.booking.common.BookingStatus;
 import com.booking.booking.dto.request.BookingRequest;
 import com.booking.booking.dto.response.BookingResponse;
 import com.booking.booking.dto.response.PageResponse;
 import com.booking.booking.dto.response.ResponseSuccess;
+import com.booking.booking.service.BookingExportService;
 import com.booking.booking.service.BookingPdfService;
 import com.booking.booking.service.interfaces.BookingService;
 import io.jsonwebtoken.io.IOException;
@@ -14,14 +16,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -31,6 +36,7 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final BookingPdfService bookingPdfService;
+    private final BookingExportService bookingExportService;
 
     @Operation(summary = "Create Booking", description = "API to create a new booking")
     @PostMapping
@@ -64,6 +70,22 @@ public class BookingController {
         return new ResponseSuccess(HttpStatus.OK, "Fetched booking list successfully", result);
     }
 
+    @Operation(summary = "Export Bookings", description = "API to stream bookings as CSV, filtered by hotel, status and creation date range")
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN', 'MANAGER', 'STAFF')")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) Long hotelId,
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StreamingResponseBody body = bookingExportService.exportCsv(hotelId, status, from, to);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=bookings_" + LocalDate.now() + ".csv")
+                .contentType(new MediaType("text", "csv", java.nio.charset.StandardCharsets.UTF_8))
+                .body(body);
+    }
+
     @Operation(summary = "Get Booking By Id", description = "API to retrieve booking details by ID")
     @GetMapping("/{id}")
     @ResponseStatus(HttpStatus.OK)
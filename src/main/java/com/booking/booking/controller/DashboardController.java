@@ -6,10 +6,12 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -80,4 +82,48 @@ public class DashboardController {
         return new ResponseSuccess(HttpStatus.OK, "Revenue statistics retrieved successfully", 
                 dashboardService.getRevenueStatistics(months));
     }
+
+    @Operation(summary = "Get occupancy analytics", description = "API retrieve occupancy, ADR and RevPAR per hotel computed from room-nights")
+    @GetMapping("/occupancy")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN', 'MANAGER', 'STAFF')")
+    public ResponseSuccess getOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Get occupancy from {} to {}", from, to);
+        return new ResponseSuccess(HttpStatus.OK, "Occupancy retrieved successfully",
+                dashboardService.getOccupancy(from, to));
+    }
+
+    @Operation(summary = "Get guest analytics", description = "API retrieve approximate unique and repeat guests per month")
+    @GetMapping("/guests")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN', 'MANAGER', 'STAFF')")
+    public ResponseSuccess getGuestAnalytics(@RequestParam(defaultValue = "6") int months) {
+        log.info("Get guest analytics for {} months", months);
+        return new ResponseSuccess(HttpStatus.OK, "Guest analytics retrieved successfully",
+                dashboardService.getGuestAnalytics(months));
+    }
+
+    @Operation(summary = "Get unique guests", description = "API retrieve approximate unique guests for a date range")
+    @GetMapping("/guests/unique")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN', 'MANAGER', 'STAFF')")
+    public ResponseSuccess getUniqueGuests(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Get unique guests from {} to {}", from, to);
+        return new ResponseSuccess(HttpStatus.OK, "Unique guests retrieved successfully",
+                dashboardService.getUniqueGuests(from, to));
+    }
+
+    @Operation(summary = "Get live dashboard snapshot", description = "API retrieve in-memory counters; subsequent deltas are pushed to /topic/dashboard/global or /topic/dashboard/hotel/{id}")
+    @GetMapping("/live")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN', 'MANAGER', 'STAFF')")
+    public ResponseSuccess getLiveSnapshot() {
+        log.info("Get live dashboard snapshot");
+        return new ResponseSuccess(HttpStatus.OK, "Live dashboard snapshot retrieved successfully",
+                dashboardService.getLiveSnapshot());
+    }
 }
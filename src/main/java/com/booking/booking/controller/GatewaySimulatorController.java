@@ -0,0 +1,30 @@
+package com.booking.booking.controller;
+
+import com.booking.booking.dto.request.CreateMomoRequest;
+import com.booking.booking.dto.response.CreateMomoResponse;
+import com.booking.booking.service.GatewaySimulatorService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.view.RedirectView;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/sim")
+@Profile("gateway-sim")
+@RequiredArgsConstructor
+public class GatewaySimulatorController {
+
+    private final GatewaySimulatorService gatewaySimulatorService;
+
+    @PostMapping("/momo/create")
+    public CreateMomoResponse createMomo(@RequestBody CreateMomoRequest request) {
+        return gatewaySimulatorService.createMomo(request);
+    }
+
+    @GetMapping("/vnpay/pay")
+    public RedirectView payVnpay(@RequestParam Map<String, String> params) {
+        return new RedirectView(gatewaySimulatorService.payVnpay(params));
+    }
+}
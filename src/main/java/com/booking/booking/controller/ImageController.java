@@ -0,0 +1,42 @@
+package com.booking.booking.controller;
+
+import com.booking.booking.service.ImageUploadService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/v1/images")
+@RequiredArgsConstructor
+@Tag(name = "Image Controller")
+public class ImageController {
+
+    private final ImageUploadService imageUploadService;
+
+    /**
+     * Serves an image that is still waiting for its Cloudinary upload, so the placeholder URL renders meanwhile.
+     */
+    @GetMapping("/staged/{token}")
+    public ResponseEntity<Resource> getStagedImage(@PathVariable String token) {
+        Path file = imageUploadService.resolveStaged(token);
+        if (file == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(token).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(new FileSystemResource(file));
+    }
+}
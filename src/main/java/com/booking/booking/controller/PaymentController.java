@@ -3,6 +3,7 @@ package com.booking.booking.controller;
 import com.booking.booking.dto.response.ResponseSuccess;
 import com.booking.booking.dto.response.CreateMomoResponse;
 import com.booking.booking.dto.PaymentDTO;
+import com.booking.booking.service.PaymentReconciliationService;
 import com.booking.booking.service.PaymentService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -14,8 +15,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.view.RedirectView;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,6 +30,7 @@ import java.util.Map;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentReconciliationService paymentReconciliationService;
 
     @Autowired
     private Environment env;
@@ -163,4 +168,13 @@ public class PaymentController {
         }
     }
 
+    @PostMapping("/reconciliation")
+    @PreAuthorize("hasAnyAuthority('SYSTEM_ADMIN', 'ADMIN')")
+    public ResponseSuccess reconcile(@RequestParam PaymentReconciliationService.Gateway gateway,
+                                     @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return new ResponseSuccess(HttpStatus.OK, "Reconciliation completed",
+                    paymentReconciliationService.reconcile(gateway, file.getOriginalFilename(), in));
+        }
+    }
 }
@@ -12,6 +12,7 @@ public class HotelWithAvailableRoomsDTO {
     private String name;
     private String address;
     private String imageUrl;
+    private String thumbnailUrl;
     private double starRating;
     private List<RoomSummaryDTO> availableRooms;
 }
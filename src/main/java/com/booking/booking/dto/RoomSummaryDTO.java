@@ -14,4 +14,5 @@ public class RoomSummaryDTO {
     private double pricePerNight;
     private int capacity;
     private List<String> imageUrls;
+    private List<String> thumbnailUrls;
 }
@@ -1,13 +0,0 @@
-package com.booking.booking.dto.request;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
-@Data
-@AllArgsConstructor
-public class VerifyAccountInfo {
-
-  private String email;
-  private String username;
-
-}
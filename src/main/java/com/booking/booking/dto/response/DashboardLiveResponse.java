@@ -0,0 +1,25 @@
+package com.booking.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardLiveResponse implements Serializable {
+    /**
+     * SNAPSHOT carries absolute values, DELTA only the counters that changed since the previous sequence.
+     */
+    private String type;
+    private String scope;
+    private Long hotelId;
+    private Long sequence;
+    private Long timestamp;
+    private Map<String, Long> counters;
+}
@@ -0,0 +1,20 @@
+package com.booking.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestAnalyticsResponse implements Serializable {
+    private String month;
+    private String year;
+    private Long uniqueGuests;
+    private Long repeatGuests;
+    private Double repeatRate;
+}
@@ -0,0 +1,27 @@
+package com.booking.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelOccupancyResponse implements Serializable {
+    private Long hotelId;
+    private String hotelName;
+    private LocalDate from;
+    private LocalDate to;
+    private Long roomCount;
+    private Long roomNightsAvailable;
+    private Long roomNightsSold;
+    private Double occupancyRate;
+    private Double revenue;
+    private Double adr;
+    private Double revPar;
+}
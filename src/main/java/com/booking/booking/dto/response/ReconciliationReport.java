@@ -0,0 +1,47 @@
+package com.booking.booking.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReport implements Serializable {
+    private String gateway;
+    private String source;
+    private long rows;
+    private long matched;
+    /**
+     * Failed attempts of bookings that are paid, e.g. a declined MoMo QR followed by a successful one.
+     */
+    private long superseded;
+    /**
+     * Discrepancy type to count; {@link #discrepancies} only lists the first {@code payment.reconciliation.max-details}.
+     */
+    private Map<String, Long> discrepancyCounts;
+    private List<Discrepancy> discrepancies;
+    private long durationMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Discrepancy implements Serializable {
+        private String type;
+        private long line;
+        private String bookingCode;
+        private String transactionId;
+        private BigDecimal gatewayAmount;
+        private BigDecimal bookingAmount;
+        private String gatewayStatus;
+        private String bookingStatus;
+    }
+}
@@ -0,0 +1,31 @@
+package com.booking.booking.dto.response;
+
+import com.booking.booking.common.ReindexJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReindexJobResponse implements Serializable {
+    private String jobId;
+    private ReindexJobStatus status;
+    private boolean force;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long totalHotels;
+    private long processedHotels;
+    private double percent;
+    private long documents;
+    private long embedded;
+    private long unchanged;
+    private long failed;
+    private long deleted;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.booking.booking.event;
+
+import com.booking.booking.common.BookingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Getter
+@AllArgsConstructor
+public class BookingStatusChangedEvent {
+
+    private final Long bookingId;
+    private final Long hotelId;
+    private final Long guestId;
+    /**
+     * {@code null} when the booking has just been created.
+     */
+    private final BookingStatus previousStatus;
+    private final BookingStatus newStatus;
+    private final BigDecimal totalPrice;
+    private final Date createdAt;
+}
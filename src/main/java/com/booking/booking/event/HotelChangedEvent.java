@@ -0,0 +1,14 @@
+package com.booking.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Something that affects the hotel's search documents (details, rooms, prices or availability) has changed.
+ */
+@Getter
+@AllArgsConstructor
+public class HotelChangedEvent {
+
+    private final Long hotelId;
+}
@@ -0,0 +1,11 @@
+package com.booking.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserRegisteredEvent {
+
+    private final Long userId;
+}
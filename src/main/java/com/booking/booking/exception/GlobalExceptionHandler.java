@@ -97,6 +97,13 @@ public class GlobalExceptionHandler {
         return new ResponseFailure(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseFailure handlePaymentGatewayUnavailable(PaymentGatewayUnavailableException ex, WebRequest request) {
+        log.warn("Payment gateway unavailable: {}", ex.getMessage());
+        return new ResponseFailure(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     @ExceptionHandler(PasswordNotMatchException.class)
     @ResponseStatus(HttpStatus.EXPECTATION_FAILED)
     public ResponseFailure handlePasswordNotMatchException(PasswordNotMatchException ex, WebRequest request) {
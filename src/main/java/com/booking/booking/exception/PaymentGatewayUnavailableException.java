@@ -0,0 +1,12 @@
+package com.booking.booking.exception;
+
+public class PaymentGatewayUnavailableException extends RuntimeException {
+
+  public PaymentGatewayUnavailableException(String message) {
+    super(message);
+  }
+
+  public PaymentGatewayUnavailableException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
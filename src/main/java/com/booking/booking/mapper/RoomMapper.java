@@ -36,6 +36,7 @@ public class RoomMapper {
                 .pricePerNight(room.getPricePerNight())
                 .available(room.isAvailable())
                 .listImageUrl(room.getListImageUrl())
+                .thumbnailUrls(room.getThumbnailUrls())
                 .hotelId(room.getHotel() != null ? room.getHotel().getId() : null)
                 .hotelName(room.getHotel() != null ? room.getHotel().getName() : null)
                 .services(room.getServices())
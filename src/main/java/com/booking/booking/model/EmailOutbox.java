@@ -0,0 +1,54 @@
+package com.booking.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * An email queued by the transaction that asked for it and sent later by {@code EmailDispatcher}. Either
+ * {@code template} and its {@code variables} (JSON) or a plain-text {@code body} is set.
+ */
+@Entity
+@Table(name = "tbl_email_outbox", indexes = @Index(name = "idx_email_outbox_next_attempt", columnList = "nextAttemptAt"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(length = 100)
+    private String template;
+
+    @Column(columnDefinition = "TEXT")
+    private String variables;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private Date createdAt;
+
+    @Column(nullable = false)
+    private Date nextAttemptAt;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -25,6 +25,8 @@ public class Hotel extends AbstractEntity<Long> implements Serializable {
 
     private int totalRooms;
     private String imageUrl;
+    private String cardImageUrl;
+    private String thumbnailUrl;
     private String district;
     private String province;
     private double starRating;
@@ -0,0 +1,28 @@
+package com.booking.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * The downsized WebP variants of one uploaded image, keyed by the URL of its full-size rendition.
+ */
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRenditions implements Serializable {
+
+    @Column(name = "full_url")
+    private String fullUrl;
+
+    @Column(name = "card_url")
+    private String cardUrl;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+}
@@ -0,0 +1,44 @@
+package com.booking.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * A Kafka message written in the same transaction as the change it announces and published later by the outbox relay.
+ */
+@Entity
+@Table(name = "tbl_outbox", indexes = @Index(name = "idx_outbox_message_key", columnList = "messageKey"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String topic;
+
+    @Column(length = 255)
+    private String messageKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Date createdAt;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+}
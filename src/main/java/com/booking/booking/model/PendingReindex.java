@@ -0,0 +1,31 @@
+package com.booking.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * A hotel waiting for its debounced re-index. Kept in the database rather than in memory, so the Kafka offset of the
+ * {@code hotel-index-events} message can be committed without losing the re-index on a restart.
+ */
+@Entity
+@Table(name = "tbl_reindex_pending")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PendingReindex {
+
+    @Id
+    private Long hotelId;
+
+    @Column(nullable = false)
+    private Date firstAt;
+
+    @Column(nullable = false)
+    private Date lastAt;
+}
@@ -37,6 +37,36 @@ public class Room extends AbstractEntity<Long> implements Serializable {
     @Column(name = "image_url")
     private List<String> listImageUrl = new ArrayList<>();
 
+    @ElementCollection
+    @CollectionTable(name = "room_image_renditions", joinColumns = @JoinColumn(name = "room_id"))
+    private List<ImageRenditions> imageRenditions = new ArrayList<>();
+
+    /**
+     * Card-size variant of each image in {@code listImageUrl}, or the image itself when it has none.
+     */
+    public List<String> getCardImageUrls() {
+        if (listImageUrl == null) {
+            return List.of();
+        }
+        return listImageUrl.stream().map(url -> renditionsOf(url).getCardUrl()).toList();
+    }
+
+    public List<String> getThumbnailUrls() {
+        if (listImageUrl == null) {
+            return List.of();
+        }
+        return listImageUrl.stream().map(url -> renditionsOf(url).getThumbnailUrl()).toList();
+    }
+
+    public ImageRenditions renditionsOf(String url) {
+        for (ImageRenditions renditions : imageRenditions) {
+            if (renditions.getFullUrl().equals(url)) {
+                return renditions;
+            }
+        }
+        return new ImageRenditions(url, url, url);
+    }
+
     @ManyToOne
     @JoinColumn(name = "hotel_id", nullable = false)
     @JsonBackReference
@@ -0,0 +1,41 @@
+package com.booking.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * One row per document in the vector store, used to skip re-embedding unchanged content.
+ */
+@Entity
+@Table(name = "tbl_vector_index_entry", indexes = @Index(name = "idx_vector_index_entry_hotel", columnList = "hotelId"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+public class VectorIndexEntry {
+
+    @Id
+    @Column(length = 64)
+    private String docKey;
+
+    @Column(nullable = false, length = 36)
+    private String documentId;
+
+    @Column(nullable = false)
+    private Long hotelId;
+
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(nullable = false)
+    private Date indexedAt;
+
+    private Date lastSeenAt;
+}
@@ -9,14 +9,19 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long>,
@@ -42,6 +47,9 @@ public interface BookingRepository extends JpaRepository<Booking, Long>,
 
     Optional<Booking> findByBookingCode(String bookingCode);
 
+    @Query("SELECT b.bookingCode, b.totalPrice, b.status FROM Booking b WHERE b.bookingCode IN :codes")
+    List<Object[]> findPaymentStateByBookingCodeIn(@Param("codes") Collection<String> codes);
+
     @Query("SELECT b FROM Booking b WHERE b.status = 'PENDING' AND b.createdAt < :expiredBefore")
     List<Booking> findExpiredPendingBookings(@Param("expiredBefore") Date expiredBefore);
 
@@ -88,6 +96,66 @@ public interface BookingRepository extends JpaRepository<Booking, Long>,
     @Query("SELECT COALESCE(AVG(b.totalPrice), 0) FROM Booking b WHERE b.status IN (com.booking.booking.common.BookingStatus.COMPLETED, com.booking.booking.common.BookingStatus.CONFIRMED)")
     Double findAverageOrderValue();
 
+    Long countByHotelId(Long hotelId);
+
+    Long countByHotelIdAndStatus(Long hotelId, BookingStatus status);
+
+    Long countByHotelIdAndCreatedAtBetween(Long hotelId, java.time.LocalDateTime startDate, java.time.LocalDateTime endDate);
+
+    @Query("SELECT COALESCE(SUM(b.totalPrice), 0) FROM Booking b WHERE b.hotel.id = :hotelId AND b.status IN :statuses")
+    Double sumTotalPriceByHotelIdAndStatusIn(@Param("hotelId") Long hotelId,
+                                             @Param("statuses") List<BookingStatus> statuses);
+
+    @Query("SELECT COALESCE(SUM(b.totalPrice), 0) FROM Booking b WHERE b.hotel.id = :hotelId AND b.status IN :statuses AND b.createdAt BETWEEN :startDate AND :endDate")
+    Double sumTotalPriceByHotelIdAndStatusInAndCreatedAtBetween(@Param("hotelId") Long hotelId,
+                                                                @Param("statuses") List<BookingStatus> statuses,
+                                                                @Param("startDate") java.time.LocalDateTime startDate,
+                                                                @Param("endDate") java.time.LocalDateTime endDate);
+
+    @Query("SELECT COALESCE(AVG(b.totalPrice), 0) FROM Booking b WHERE b.hotel.id = :hotelId AND b.status IN (com.booking.booking.common.BookingStatus.COMPLETED, com.booking.booking.common.BookingStatus.CONFIRMED)")
+    Double findAverageOrderValueByHotelId(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT COUNT(DISTINCT b.guest.id) FROM Booking b WHERE b.hotel.id = :hotelId")
+    Long countDistinctGuestsByHotelId(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT b.hotel.id, b.status, COUNT(b) FROM Booking b GROUP BY b.hotel.id, b.status")
+    List<Object[]> countGroupByHotelAndStatus();
+
+    @Query("SELECT b.hotel.id, COUNT(b), COALESCE(SUM(CASE WHEN b.status IN :statuses THEN b.totalPrice ELSE 0 END), 0) " +
+            "FROM Booking b WHERE b.createdAt >= :startDate GROUP BY b.hotel.id")
+    List<Object[]> summarizeCreatedSinceGroupByHotel(@Param("statuses") List<BookingStatus> statuses,
+                                                     @Param("startDate") java.time.LocalDateTime startDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.hotel.id, b.checkInDate, b.checkOutDate, SIZE(b.rooms), b.totalPrice FROM Booking b " +
+            "WHERE b.hotel.id IN :hotelIds AND b.status IN :statuses AND b.isDeleted = false " +
+            "AND b.checkInDate < :endExclusive AND b.checkOutDate > :start")
+    Stream<Object[]> streamStaysOverlapping(@Param("hotelIds") List<Long> hotelIds,
+                                            @Param("statuses") List<BookingStatus> statuses,
+                                            @Param("start") LocalDate start,
+                                            @Param("endExclusive") LocalDate endExclusive);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b.id, b.bookingCode, h.id, h.name, g.username, g.email, b.checkInDate, b.checkOutDate, " +
+            "SIZE(b.rooms), b.totalPrice, b.status, b.paymentType, b.createdAt " +
+            "FROM Booking b JOIN b.hotel h LEFT JOIN b.guest g " +
+            "WHERE b.isDeleted = false " +
+            "AND (:hotelId IS NULL OR h.id = :hotelId) " +
+            "AND (:status IS NULL OR b.status = :status) " +
+            "AND b.createdAt >= :startDate AND b.createdAt < :endDate " +
+            "ORDER BY b.id")
+    Stream<Object[]> streamForExport(@Param("hotelId") Long hotelId,
+                                     @Param("status") BookingStatus status,
+                                     @Param("startDate") java.time.LocalDateTime startDate,
+                                     @Param("endDate") java.time.LocalDateTime endDate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "2000"))
+    @Query("SELECT b.hotel.id, b.guest.id, b.createdAt FROM Booking b WHERE b.status IN :statuses AND b.guest IS NOT NULL")
+    Stream<Object[]> streamGuestVisits(@Param("statuses") List<BookingStatus> statuses);
+
     @Query("SELECT b FROM Booking b JOIN b.rooms r " +
             "WHERE r.id = :roomId " +
             "AND b.status NOT IN ('CANCELLED', 'FAILED')")
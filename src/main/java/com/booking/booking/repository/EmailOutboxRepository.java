@@ -0,0 +1,27 @@
+package com.booking.booking.repository;
+
+import com.booking.booking.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Locks the oldest emails that are due and still have attempts left, skipping rows another sender holds.
+     */
+    @Query(value = "SELECT * FROM tbl_email_outbox WHERE attempts < :maxAttempts AND next_attempt_at <= now() " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> claimDue(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    /**
+     * Drops the content of parked emails; the row stays, with its recipient and last error, for inspection.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.body = null, e.variables = null WHERE e.attempts >= :maxAttempts " +
+            "AND (e.body IS NOT NULL OR e.variables IS NOT NULL)")
+    int clearParked(@Param("maxAttempts") int maxAttempts);
+}
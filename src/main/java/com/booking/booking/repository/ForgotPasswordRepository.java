@@ -16,4 +16,8 @@ public interface ForgotPasswordRepository extends JpaRepository<ForgotPassword,
   @Modifying
   @Query("delete from ForgotPassword fp where fp.otp = :otp and fp.user = :user")
   void deleteByOtpAndUser(@Param("otp") Integer otp, @Param("user") User user);
+
+  @Modifying
+  @Query("delete from ForgotPassword fp where fp.user = :user")
+  void deleteByUser(@Param("user") User user);
 }
@@ -46,7 +46,7 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>,
     @Query(value = """
             SELECT h.id, h.name, COUNT(b.id) as bookingCount, 
                    COALESCE(SUM(b.total_price), 0) as totalRevenue,
-                   0 as averageRating,
+                   COALESCE((SELECT AVG(e.star_rating) FROM tbl_evaluate e WHERE e.hotel_id = h.id AND e.is_deleted = false), 0) as averageRating,
                    ROUND((COUNT(b.id) * 100.0 / NULLIF(h.total_rooms * :months, 0)), 2) as occupancyRate
             FROM tbl_hotel h
             LEFT JOIN tbl_booking b ON b.hotel_id = h.id 
@@ -61,9 +61,40 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>,
                                              @Param("months") int months,
                                              @Param("startDate") LocalDateTime startDate);
 
+    @Query(value = """
+            SELECT h.id, h.name, COUNT(b.id) as bookingCount,
+                   COALESCE(SUM(b.total_price), 0) as totalRevenue,
+                   COALESCE((SELECT AVG(e.star_rating) FROM tbl_evaluate e WHERE e.hotel_id = h.id AND e.is_deleted = false), 0) as averageRating,
+                   ROUND((COUNT(b.id) * 100.0 / NULLIF(h.total_rooms * :months, 0)), 2) as occupancyRate
+            FROM tbl_hotel h
+            LEFT JOIN tbl_booking b ON b.hotel_id = h.id
+                AND b.status IN ('COMPLETED', 'CONFIRMED')
+                AND b.created_at >= :startDate
+            WHERE h.is_deleted = false
+              AND h.id = :hotelId
+            GROUP BY h.id, h.name, h.total_rooms
+            """, nativeQuery = true)
+    List<Object> findTopHotelsByBookingCountForHotel(@Param("hotelId") Long hotelId,
+                                                     @Param("months") int months,
+                                                     @Param("startDate") LocalDateTime startDate);
+
+    @Query("SELECT h.id, h.name, h.totalRooms, COUNT(r.id) FROM Hotel h LEFT JOIN h.rooms r ON r.isDeleted = false " +
+            "WHERE h.isDeleted = false GROUP BY h.id, h.name, h.totalRooms")
+    List<Object[]> findRoomInventory();
+
+    @Query("SELECT h.id, h.name, h.totalRooms, COUNT(r.id) FROM Hotel h LEFT JOIN h.rooms r ON r.isDeleted = false " +
+            "WHERE h.id IN :ids GROUP BY h.id, h.name, h.totalRooms")
+    List<Object[]> findRoomInventoryByIds(@Param("ids") List<Long> ids);
+
     @Query("SELECT h FROM Hotel h LEFT JOIN FETCH h.rooms")
     List<Hotel> findAllWithRooms();
 
+    @Query("SELECT h.id FROM Hotel h WHERE h.isDeleted = false AND h.id > :afterId ORDER BY h.id")
+    List<Long> findActiveIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT DISTINCT h FROM Hotel h LEFT JOIN FETCH h.rooms WHERE h.id IN :ids")
+    List<Hotel> findAllWithRoomsByIdIn(@Param("ids") List<Long> ids);
+
     @Query("""
                 SELECT DISTINCT h FROM Hotel h
                 JOIN h.rooms r
@@ -94,6 +125,5 @@ public interface HotelRepository extends JpaRepository<Hotel, Long>,
             @Param("checkOut") LocalDate checkOut
     );
 
-
+    boolean existsByImageUrl(String imageUrl);
 }
-
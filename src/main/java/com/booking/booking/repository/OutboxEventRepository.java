@@ -0,0 +1,31 @@
+package com.booking.booking.repository;
+
+import com.booking.booking.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest unpublished messages that are not parked, skipping rows another relay instance already holds.
+     */
+    @Query(value = "SELECT * FROM tbl_outbox WHERE attempts < :maxAttempts ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    /**
+     * Keys that still have an older, not parked message outside {@code claimedIds}, i.e. one locked by another relay.
+     */
+    @Query("SELECT DISTINCT e.messageKey FROM OutboxEvent e " +
+            "WHERE e.messageKey IN :keys AND e.id < :maxId AND e.id NOT IN :claimedIds AND e.attempts < :maxAttempts")
+    List<String> findKeysWithOlderMessages(@Param("keys") Collection<String> keys,
+                                           @Param("maxId") Long maxId,
+                                           @Param("claimedIds") Collection<Long> claimedIds,
+                                           @Param("maxAttempts") int maxAttempts);
+
+    boolean existsByTopicAndPayloadEndingWith(String topic, String payloadSuffix);
+}
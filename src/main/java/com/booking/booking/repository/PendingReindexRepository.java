@@ -0,0 +1,42 @@
+package com.booking.booking.repository;
+
+import com.booking.booking.model.PendingReindex;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface PendingReindexRepository extends JpaRepository<PendingReindex, Long> {
+
+    /**
+     * Records a change of the hotel: a new entry starts its wait, an existing one only moves its last change.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO tbl_reindex_pending (hotel_id, first_at, last_at) VALUES (:hotelId, :now, :now) " +
+            "ON CONFLICT (hotel_id) DO UPDATE SET last_at = EXCLUDED.last_at", nativeQuery = true)
+    int touch(@Param("hotelId") Long hotelId, @Param("now") Date now);
+
+    /**
+     * Hotels that stayed quiet since {@code quietSince}, or have been waiting since before {@code waitingSince}.
+     */
+    @Query("SELECT p FROM PendingReindex p WHERE p.lastAt <= :quietSince OR p.firstAt <= :waitingSince ORDER BY p.firstAt")
+    List<PendingReindex> findDue(@Param("quietSince") Date quietSince, @Param("waitingSince") Date waitingSince);
+
+    /**
+     * Removes the entry unless the hotel changed again while it was being re-indexed.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PendingReindex p WHERE p.hotelId = :hotelId AND p.lastAt = :lastAt")
+    int deleteIfUnchanged(@Param("hotelId") Long hotelId, @Param("lastAt") Date lastAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE PendingReindex p SET p.firstAt = :now, p.lastAt = :now WHERE p.hotelId = :hotelId")
+    int restart(@Param("hotelId") Long hotelId, @Param("now") Date now);
+}
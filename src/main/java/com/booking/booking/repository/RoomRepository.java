@@ -1,5 +1,6 @@
 package com.booking.booking.repository;
 
+import com.booking.booking.common.BookingStatus;
 import com.booking.booking.common.TypeRoom;
 import com.booking.booking.model.Hotel;
 import com.booking.booking.model.Room;
@@ -12,6 +13,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -43,6 +45,9 @@ public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificat
     @Query("UPDATE Room r SET r.isDeleted = false, r.deletedAt = null WHERE r.id IN :ids AND r.isDeleted = true")
     int restoreByIds(@Param("ids") List<Long> ids);
 
+    @Query("SELECT COUNT(r) > 0 FROM Room r JOIN r.listImageUrl url WHERE url = :url")
+    boolean existsByImageUrl(@Param("url") String url);
+
     Page<Room> findAllByIsDeletedTrue(Pageable pageable);
 
     Page<Room> findAllByIsDeletedTrueAndHotel(Pageable pageable, Hotel hotel);
@@ -81,6 +86,31 @@ public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificat
 
     Long countByTypeRoomAndIsDeletedFalse(TypeRoom typeRoom);
 
+    Long countByHotelIdAndIsDeletedFalse(Long hotelId);
+
+    Long countByHotelIdAndTypeRoomAndIsDeletedFalse(Long hotelId, TypeRoom typeRoom);
+
+
+    @Query("""
+                SELECT DISTINCT r.hotel.id FROM Room r
+                WHERE r.hotel.id IN :hotelIds
+                AND r.isDeleted = false
+                AND r.available = true
+                AND (r.holdExpiresAt IS NULL OR r.holdExpiresAt < CURRENT_TIMESTAMP)
+                AND NOT EXISTS (
+                    SELECT b FROM Booking b
+                    JOIN b.rooms br
+                    WHERE br.id = r.id
+                    AND b.status IN :activeStatuses
+                    AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn
+                )
+            """)
+    List<Long> findHotelIdsWithAvailableRooms(
+            @Param("hotelIds") Collection<Long> hotelIds,
+            @Param("activeStatuses") List<BookingStatus> activeStatuses,
+            @Param("checkIn") LocalDate checkIn,
+            @Param("checkOut") LocalDate checkOut
+    );
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT r FROM Room r WHERE r.id IN :roomIds")
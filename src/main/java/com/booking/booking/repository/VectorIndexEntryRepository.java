@@ -0,0 +1,26 @@
+package com.booking.booking.repository;
+
+import com.booking.booking.model.VectorIndexEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface VectorIndexEntryRepository extends JpaRepository<VectorIndexEntry, String> {
+
+    List<VectorIndexEntry> findAllByHotelIdIn(Collection<Long> hotelIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE VectorIndexEntry e SET e.lastSeenAt = :seenAt WHERE e.docKey IN :docKeys")
+    int markSeen(@Param("docKeys") Collection<String> docKeys, @Param("seenAt") Date seenAt);
+
+    @Query("SELECT e FROM VectorIndexEntry e WHERE e.lastSeenAt IS NULL OR e.lastSeenAt < :runStartedAt")
+    List<VectorIndexEntry> findNotSeenSince(@Param("runStartedAt") Date runStartedAt, Pageable pageable);
+}
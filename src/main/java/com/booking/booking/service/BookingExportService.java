@@ -0,0 +1,146 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.common.UserType;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.exception.ForBiddenException;
+import com.booking.booking.model.User;
+import com.booking.booking.repository.BookingRepository;
+import com.booking.booking.util.UserContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j(topic = "BOOKING-EXPORT-SERVICE")
+public class BookingExportService {
+
+    private static final String HEADER = "id,bookingCode,hotelId,hotelName,guestUsername,guestEmail,checkInDate,checkOutDate,rooms,totalPrice,status,paymentType,createdAt";
+    private static final int FLUSH_EVERY = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BookingRepository bookingRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final UserContext userContext;
+
+    /**
+     * Resolves filters and access on the request thread; the returned body streams rows with constant memory.
+     */
+    public StreamingResponseBody exportCsv(Long hotelId, BookingStatus status, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("Export 'to' date must not be before 'from' date");
+        }
+        Long scopedHotelId = resolveHotelId(userContext.getCurrentUser(), hotelId);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return outputStream -> {
+            long startedAt = System.currentTimeMillis();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write('\uFEFF');
+            writer.write(HEADER);
+            writer.write('\n');
+
+            Long rows = readOnly.execute(tx -> {
+                try (Stream<Object[]> stream = bookingRepository.streamForExport(
+                        scopedHotelId, status, start.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+                    long count = 0;
+                    Iterator<Object[]> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        writeRow(writer, iterator.next());
+                        if (++count % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            writer.flush();
+            log.info("Exported {} bookings ({} -> {}, hotel={}, status={}) in {} ms",
+                    rows, start, end, scopedHotelId, status, System.currentTimeMillis() - startedAt);
+        };
+    }
+
+    private Long resolveHotelId(User user, Long requestedHotelId) {
+        if (user.getType() != UserType.MANAGER && user.getType() != UserType.STAFF) {
+            return requestedHotelId;
+        }
+        if (user.getHotel() == null) {
+            throw new BadRequestException("User does not own any hotel");
+        }
+        if (requestedHotelId != null && !requestedHotelId.equals(user.getHotel().getId())) {
+            throw new ForBiddenException("You are not allowed to export bookings of hotel with id: " + requestedHotelId);
+        }
+        return user.getHotel().getId();
+    }
+
+    private void writeRow(Writer writer, Object[] row) throws IOException {
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, row[i]);
+        }
+        writer.write('\n');
+    }
+
+    private void writeValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof Date date) {
+            text = date.toInstant().toString();
+        } else if (value instanceof Number) {
+            text = value.toString();
+        } else {
+            text = neutralizeFormula(value.toString());
+        }
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Hotel names, usernames and room names are user input; a value starting with {@code =}, {@code +}, {@code -}
+     * or {@code @} would run as a formula when the export is opened in Excel or Sheets, so it gets a leading quote.
+     */
+    private static String neutralizeFormula(String text) {
+        if (text.isEmpty()) {
+            return text;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+                ? "'" + text
+                : text;
+    }
+}
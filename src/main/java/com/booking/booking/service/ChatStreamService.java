@@ -0,0 +1,162 @@
+package com.booking.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams a chat answer as Server-Sent Events: {@code suggestions} once retrieval is done, then {@code token} events
+ * from the chat model and a final {@code done}. At most {@code rag.chat.max-streams} generations run at once, and a
+ * disconnected client cancels its generation.
+ */
+@Service
+@Slf4j(topic = "CHAT-STREAM-SERVICE")
+public class ChatStreamService {
+
+    private static final String SYSTEM_PROMPT = """
+            Bạn là trợ lý đặt phòng khách sạn. Chỉ trả lời dựa trên danh sách khách sạn được cung cấp, \
+            không tự bịa thêm khách sạn, giá hay tiện ích. Nếu danh sách trống, hãy nói rằng chưa tìm thấy \
+            khách sạn phù hợp và gợi ý người dùng đổi địa điểm hoặc mức giá. Trả lời ngắn gọn bằng tiếng Việt.
+            """;
+
+    private final EnhancedAIChatService chatService;
+    private final ChatModel chatModel;
+    private final TaskExecutor taskExecutor;
+    private final Semaphore streams;
+    private final long timeoutMs;
+
+    public ChatStreamService(EnhancedAIChatService chatService,
+                             ChatModel chatModel,
+                             @Qualifier("chatStreamExecutor") TaskExecutor taskExecutor,
+                             @Value("${rag.chat.max-streams:4}") int maxStreams,
+                             @Value("${rag.chat.stream-timeout-ms:120000}") long timeoutMs) {
+        this.chatService = chatService;
+        this.chatModel = chatModel;
+        this.taskExecutor = taskExecutor;
+        this.streams = new Semaphore(maxStreams);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter stream(String question) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        if (!streams.tryAcquire()) {
+            sendQuietly(emitter, "busy", Map.of("error", "Hệ thống đang bận, vui lòng thử lại sau"));
+            emitter.complete();
+            return emitter;
+        }
+
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicReference<Disposable> generation = new AtomicReference<>();
+        Runnable release = () -> {
+            if (finished.compareAndSet(false, true)) {
+                Disposable subscription = generation.get();
+                if (subscription != null) {
+                    subscription.dispose();
+                }
+                streams.release();
+            }
+        };
+        emitter.onCompletion(release);
+        emitter.onTimeout(release);
+        emitter.onError(e -> release.run());
+
+        try {
+            taskExecutor.execute(() -> answer(question, emitter, generation, finished, release));
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        return emitter;
+    }
+
+    private void answer(String question, SseEmitter emitter, AtomicReference<Disposable> generation,
+                        AtomicBoolean finished, Runnable release) {
+        long startTime = System.currentTimeMillis();
+        try {
+            List<HotelRAGService.HotelSuggestionDTO> suggestions = chatService.answerQuestion(question);
+            emitter.send(SseEmitter.event().name("suggestions").data(suggestions));
+            log.debug("Đã gửi {} gợi ý sau {}ms", suggestions.size(), System.currentTimeMillis() - startTime);
+
+            if (finished.get()) {
+                return;
+            }
+            Prompt prompt = new Prompt(List.of(
+                    new SystemMessage(SYSTEM_PROMPT),
+                    new UserMessage("Danh sách khách sạn:\n" + describe(suggestions) + "\nCâu hỏi: " + question)));
+
+            generation.set(chatModel.stream(prompt).subscribe(
+                    response -> sendToken(emitter, response),
+                    error -> {
+                        log.warn("Lỗi khi sinh câu trả lời: {}", error.getMessage());
+                        sendQuietly(emitter, "error", Map.of("error", "Không thể tạo câu trả lời"));
+                        emitter.complete();
+                    },
+                    () -> {
+                        sendQuietly(emitter, "done", Map.of("processingTime", (System.currentTimeMillis() - startTime) + "ms"));
+                        emitter.complete();
+                    }));
+            if (finished.get()) {
+                generation.get().dispose();
+            }
+        } catch (IOException e) {
+            log.debug("Client đã ngắt kết nối trước khi nhận gợi ý");
+            release.run();
+        } catch (Exception e) {
+            log.error("Lỗi khi stream câu trả lời", e);
+            sendQuietly(emitter, "error", Map.of("error", "Có lỗi xảy ra khi xử lý câu hỏi. Vui lòng thử lại."));
+            emitter.complete();
+        }
+    }
+
+    private void sendToken(SseEmitter emitter, ChatResponse response) {
+        if (response.getResult() == null || response.getResult().getOutput() == null) {
+            return;
+        }
+        String text = response.getResult().getOutput().getText();
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name("token").data(text));
+        } catch (IOException e) {
+            // client went away; completing the emitter runs the release callback, which disposes the generation
+            emitter.completeWithError(e);
+        }
+    }
+
+    private String describe(List<HotelRAGService.HotelSuggestionDTO> suggestions) {
+        StringBuilder sb = new StringBuilder();
+        for (HotelRAGService.HotelSuggestionDTO hotel : suggestions) {
+            if (hotel.getId() == null) {
+                continue;
+            }
+            sb.append(String.format("- %s (%s, %s), %d sao, giá từ %,.0f VND/đêm%n",
+                    hotel.getName(), hotel.getDistrict(), hotel.getProvince(), hotel.getStar(), hotel.getMinPrice()));
+        }
+        return sb.isEmpty() ? "(trống)\n" : sb.toString();
+    }
+
+    private void sendQuietly(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Không gửi được event {}: {}", event, e.getMessage());
+        }
+    }
+}
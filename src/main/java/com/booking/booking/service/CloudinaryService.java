@@ -1,41 +1,50 @@
 package com.booking.booking.service;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.ApiResponse;
 import com.cloudinary.utils.ObjectUtils;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CloudinaryService {
 
+  public static final String DELETE_TOPIC = "delete-image";
+  public static final String DELETE_DLT = DELETE_TOPIC + ".DLT";
+
   private final Cloudinary cloudinary;
+  private final OutboxService outboxService;
 
-  public Map<String, Object> upload(MultipartFile file) {
-    try {
-      return cloudinary.uploader().upload(
-          file.getBytes(),
-          Map.of("folder", "booking")
-      );
-    } catch (IOException io) {
-      log.error("Error uploading image to Cloudinary", io);
-      throw new RuntimeException("Image upload fail");
-    }
-  }
+  @Value("${cloudinary.delete.chunk-size:100}")
+  private int deleteChunkSize;
+
+  @Value("${cloudinary.delete.max-attempts:3}")
+  private int deleteMaxAttempts;
+
+  @Value("${cloudinary.delete.backoff-ms:1000}")
+  private long deleteBackoffMs;
 
-  @KafkaListener(topics = "upload-image", groupId = "cloudinary-group")
-  public Map<String, Object> uploadKafka(MultipartFile file) {
+  /**
+   * Uploads a staged file; the client streams it from disk instead of holding it in memory. Cloudinary stores it
+   * as WebP.
+   */
+  public Map<String, Object> upload(Path file) {
     try {
-      return cloudinary.uploader().upload(
-          file.getBytes(),
-          Map.of("folder", "booking")
-      );
+      return cloudinary.uploader().upload(file.toFile(), Map.of("folder", "booking", "format", "webp"));
     } catch (IOException io) {
       log.error("Error uploading image to Cloudinary", io);
       throw new RuntimeException("Image upload fail");
@@ -50,13 +59,87 @@ public class CloudinaryService {
     }
   }
 
-  @KafkaListener(topics = "delete-image", groupId = "cloudinary-group")
-  public void deleteKafka(String publicId) {
+  /**
+   * Drains {@code delete-image} in batches: the public ids of a poll are de-duplicated and removed with the Admin API
+   * {@code delete_resources} call, 100 per request, instead of one {@code destroy} per image. Ids that still fail
+   * after the retries are parked on {@code delete-image.DLT}.
+   */
+  @KafkaListener(topics = DELETE_TOPIC, groupId = "cloudinary-group",
+      containerFactory = "batchKafkaListenerContainerFactory")
+  public void deleteKafka(List<ConsumerRecord<String, String>> records) {
+    Set<String> publicIds = new LinkedHashSet<>();
+    for (ConsumerRecord<String, String> record : records) {
+      if (record.value() != null && !record.value().isBlank()) {
+        publicIds.add(record.value());
+      }
+    }
+    log.info("Deleting {} images from {} records", publicIds.size(), records.size());
+
+    for (String publicId : deleteAll(publicIds)) {
+      outboxService.enqueue(DELETE_DLT, publicId, publicId);
+    }
+  }
+
+  /**
+   * Deletes the images in chunks, retrying only the ids Cloudinary did not report as deleted, with exponential
+   * backoff. Returns the ids that could not be deleted.
+   */
+  public Set<String> deleteAll(Collection<String> publicIds) {
+    Set<String> pending = new LinkedHashSet<>(publicIds);
+    long backoff = deleteBackoffMs;
+    for (int attempt = 1; attempt <= deleteMaxAttempts && !pending.isEmpty(); attempt++) {
+      if (attempt > 1) {
+        log.warn("Retrying delete of {} images (attempt {}/{})", pending.size(), attempt, deleteMaxAttempts);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+        backoff *= 2;
+      }
+
+      Set<String> failed = new LinkedHashSet<>();
+      List<String> chunk = new ArrayList<>(deleteChunkSize);
+      for (String publicId : pending) {
+        chunk.add(publicId);
+        if (chunk.size() == deleteChunkSize) {
+          failed.addAll(deleteChunk(chunk));
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        failed.addAll(deleteChunk(chunk));
+      }
+      pending = failed;
+    }
+
+    if (!pending.isEmpty()) {
+      log.error("Failed to delete {} images from Cloudinary: {}", pending.size(), pending);
+    }
+    return pending;
+  }
+
+  /**
+   * One {@code delete_resources} call; returns the ids whose status is neither {@code deleted} nor
+   * {@code not_found}, or the whole chunk when the call itself fails.
+   */
+  @SuppressWarnings("unchecked")
+  private List<String> deleteChunk(List<String> publicIds) {
     try {
-      log.info("Deleting image with publicId={}", publicId);
-      cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to delete image from Cloudinary", e);
+      ApiResponse response = cloudinary.api().deleteResources(publicIds, ObjectUtils.emptyMap());
+      Map<String, Object> deleted = (Map<String, Object>) response.get("deleted");
+      List<String> failed = new ArrayList<>();
+      for (String publicId : publicIds) {
+        Object status = deleted == null ? null : deleted.get(publicId);
+        if (!"deleted".equals(status) && !"not_found".equals(status)) {
+          failed.add(publicId);
+        }
+      }
+      return failed;
+    } catch (Exception e) {
+      log.warn("Bulk delete of {} images failed: {}", publicIds.size(), e.getMessage());
+      return publicIds;
     }
   }
 }
@@ -1,6 +1,7 @@
 package com.booking.booking.service;
 
 import com.booking.booking.common.UserType;
+import com.booking.booking.event.UserRegisteredEvent;
 import com.booking.booking.exception.BadRequestException;
 import com.booking.booking.model.Role;
 import com.booking.booking.model.User;
@@ -10,6 +11,7 @@ import com.booking.booking.repository.UserRepository;
 import java.util.HashSet;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
@@ -25,6 +27,7 @@ public class CustomOidcUserService implements OAuth2UserService<OidcUserRequest,
   private final OidcUserService oidcUserService;
   private final UserRepository userRepository;
   private final RoleRepository roleRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
 
   @Override
@@ -56,6 +59,7 @@ public class CustomOidcUserService implements OAuth2UserService<OidcUserRequest,
       user.getRoles().add(userHasRole);
 
       userRepository.save(user);
+      eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
     }
 
     log.info("name = {}, email: {}", name, email);
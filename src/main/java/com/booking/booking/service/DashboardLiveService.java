@@ -0,0 +1,196 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.dto.response.DashboardLiveResponse;
+import com.booking.booking.event.BookingStatusChangedEvent;
+import com.booking.booking.event.UserRegisteredEvent;
+import com.booking.booking.repository.BookingRepository;
+import com.booking.booking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps dashboard counters in memory and pushes throttled deltas over STOMP, so an open dashboard does not hit the database.
+ * <p>
+ * Single node only: the counters live in this JVM and only see the bookings this instance handles, and the simple
+ * broker only reaches the clients connected to it. Running several instances needs the counters in Redis (e.g.
+ * {@code INCRBY} per key, seeded the same way) and a broker relay.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j(topic = "DASHBOARD-LIVE")
+public class DashboardLiveService {
+
+    private static final String GLOBAL_TOPIC = "/topic/dashboard/global";
+    private static final String HOTEL_TOPIC = "/topic/dashboard/hotel/";
+
+    private static final String BOOKINGS_PREFIX = "bookings.";
+    private static final String BOOKINGS_TODAY = "bookingsToday";
+    private static final String REVENUE_TODAY = "revenueToday";
+    private static final String NEW_USERS_TODAY = "newUsersToday";
+    private static final List<String> DAILY_KEYS = List.of(BOOKINGS_TODAY, REVENUE_TODAY, NEW_USERS_TODAY);
+
+    private static final Set<BookingStatus> REVENUE_STATUSES = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final LiveCounters global = new LiveCounters();
+    private final Map<Long, LiveCounters> hotels = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedCounters() {
+        var startOfDay = LocalDate.now().atStartOfDay();
+
+        for (Object[] row : bookingRepository.countGroupByHotelAndStatus()) {
+            Long hotelId = (Long) row[0];
+            String key = BOOKINGS_PREFIX + ((BookingStatus) row[1]).name();
+            long count = ((Number) row[2]).longValue();
+            global.seed(key, count);
+            countersOf(hotelId).seed(key, count);
+        }
+
+        for (Object[] row : bookingRepository.summarizeCreatedSinceGroupByHotel(new ArrayList<>(REVENUE_STATUSES), startOfDay)) {
+            Long hotelId = (Long) row[0];
+            long bookings = ((Number) row[1]).longValue();
+            long revenue = ((Number) row[2]).longValue();
+            global.seed(BOOKINGS_TODAY, bookings);
+            global.seed(REVENUE_TODAY, revenue);
+            countersOf(hotelId).seed(BOOKINGS_TODAY, bookings);
+            countersOf(hotelId).seed(REVENUE_TODAY, revenue);
+        }
+
+        global.seed(NEW_USERS_TODAY, userRepository.countByCreatedAtBetween(startOfDay, LocalDate.now().atTime(23, 59, 59)));
+        log.info("Dashboard live counters seeded for {} hotels", hotels.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Map<String, Long> changes = new HashMap<>();
+
+        if (event.getPreviousStatus() != null) {
+            changes.merge(BOOKINGS_PREFIX + event.getPreviousStatus().name(), -1L, Long::sum);
+        }
+        changes.merge(BOOKINGS_PREFIX + event.getNewStatus().name(), 1L, Long::sum);
+
+        if (isToday(event.getCreatedAt())) {
+            if (event.getPreviousStatus() == null) {
+                changes.put(BOOKINGS_TODAY, 1L);
+            }
+            boolean wasRevenue = REVENUE_STATUSES.contains(event.getPreviousStatus());
+            boolean isRevenue = REVENUE_STATUSES.contains(event.getNewStatus());
+            if (wasRevenue != isRevenue && event.getTotalPrice() != null) {
+                long amount = event.getTotalPrice().longValue();
+                changes.put(REVENUE_TODAY, isRevenue ? amount : -amount);
+            }
+        }
+
+        global.apply(changes);
+        countersOf(event.getHotelId()).apply(changes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        global.apply(Map.of(NEW_USERS_TODAY, 1L));
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.live.push-interval-ms:2000}")
+    public void pushDeltas() {
+        push(GLOBAL_TOPIC, "SYSTEM_WIDE", null, global);
+        hotels.forEach((hotelId, counters) -> push(HOTEL_TOPIC + hotelId, "HOTEL", hotelId, counters));
+    }
+
+    @Scheduled(cron = "0 0 0 * * *")
+    public void resetDailyCounters() {
+        global.reset(DAILY_KEYS);
+        hotels.values().forEach(counters -> counters.reset(DAILY_KEYS));
+        log.info("Dashboard daily counters reset");
+    }
+
+    public DashboardLiveResponse getSnapshot(Long hotelId) {
+        LiveCounters counters = hotelId == null ? global : countersOf(hotelId);
+        return counters.snapshot(hotelId == null ? "SYSTEM_WIDE" : "HOTEL", hotelId);
+    }
+
+    private void push(String destination, String scope, Long hotelId, LiveCounters counters) {
+        DashboardLiveResponse delta = counters.drain(scope, hotelId);
+        if (delta != null) {
+            messagingTemplate.convertAndSend(destination, delta);
+        }
+    }
+
+    private LiveCounters countersOf(Long hotelId) {
+        return hotels.computeIfAbsent(hotelId, id -> new LiveCounters());
+    }
+
+    private boolean isToday(Date createdAt) {
+        if (createdAt == null) {
+            return true;
+        }
+        return createdAt.toInstant().atZone(ZoneId.systemDefault()).toLocalDate().equals(LocalDate.now());
+    }
+
+    /**
+     * {@code current} moves with every event; {@code published} is what subscribers have seen up to {@code sequence}.
+     */
+    private static final class LiveCounters {
+        private final Map<String, Long> current = new HashMap<>();
+        private final Map<String, Long> published = new HashMap<>();
+        private long sequence;
+
+        synchronized void seed(String key, long value) {
+            current.merge(key, value, Long::sum);
+            published.merge(key, value, Long::sum);
+        }
+
+        synchronized void apply(Map<String, Long> changes) {
+            changes.forEach((key, value) -> current.merge(key, value, Long::sum));
+        }
+
+        synchronized void reset(List<String> keys) {
+            keys.forEach(key -> current.put(key, 0L));
+        }
+
+        synchronized DashboardLiveResponse drain(String scope, Long hotelId) {
+            Map<String, Long> delta = new HashMap<>();
+            current.forEach((key, value) -> {
+                long diff = value - published.getOrDefault(key, 0L);
+                if (diff != 0) {
+                    delta.put(key, diff);
+                }
+            });
+            if (delta.isEmpty()) {
+                return null;
+            }
+            published.putAll(current);
+            return build("DELTA", scope, hotelId, ++sequence, delta);
+        }
+
+        synchronized DashboardLiveResponse snapshot(String scope, Long hotelId) {
+            return build("SNAPSHOT", scope, hotelId, sequence, new HashMap<>(published));
+        }
+
+        private DashboardLiveResponse build(String type, String scope, Long hotelId, long seq, Map<String, Long> counters) {
+            return DashboardLiveResponse.builder()
+                    .type(type)
+                    .scope(scope)
+                    .hotelId(hotelId)
+                    .sequence(seq)
+                    .timestamp(System.currentTimeMillis())
+                    .counters(counters)
+                    .build();
+        }
+    }
+}
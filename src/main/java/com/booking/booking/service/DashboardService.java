@@ -2,7 +2,10 @@ package com.booking.booking.service;
 
 import com.booking.booking.common.BookingStatus;
 import com.booking.booking.common.TypeRoom;
+import com.booking.booking.common.UserType;
 import com.booking.booking.dto.response.*;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.model.User;
 import com.booking.booking.repository.BookingRepository;
 import com.booking.booking.repository.HotelRepository;
 import com.booking.booking.repository.RoomRepository;
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,11 +28,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DashboardService {
 
+    private static final List<BookingStatus> REVENUE_STATUSES = Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED);
+
     private final UserRepository userRepository;
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
     private final BookingRepository bookingRepository;
     private final UserContext userContext;
+    private final DashboardLiveService dashboardLiveService;
+    private final OccupancyService occupancyService;
+    private final GuestAnalyticsService guestAnalyticsService;
 
     public DashboardOverviewResponse getOverview() {
         var currentUser = userContext.getCurrentUser();
@@ -45,32 +54,29 @@ public class DashboardService {
 
     public DashboardStatisticsResponse getStatistics() {
         var currentUser = userContext.getCurrentUser();
+        Long hotelId = resolveHotelScope(currentUser);
         var currentDate = LocalDate.now();
-        var startOfMonth = currentDate.withDayOfMonth(1);
-        var endOfMonth = currentDate.withDayOfMonth(currentDate.lengthOfMonth());
+        var startOfMonth = currentDate.withDayOfMonth(1).atStartOfDay();
+        var endOfMonth = currentDate.withDayOfMonth(currentDate.lengthOfMonth()).atTime(23, 59, 59);
 
-        Long totalUsers = userRepository.countByIsDeletedFalse();
-        Long totalHotels = hotelRepository.countByIsDeletedFalse();
-        Long totalRooms = roomRepository.countByIsDeletedFalse();
-        Long totalBookings = (long) bookingRepository.count();
+        Long totalUsers = hotelId == null
+                ? userRepository.countByIsDeletedFalse()
+                : bookingRepository.countDistinctGuestsByHotelId(hotelId);
+        Long totalHotels = hotelId == null ? hotelRepository.countByIsDeletedFalse() : 1L;
+        Long totalRooms = countRooms(hotelId);
+        Long totalBookings = hotelId == null ? bookingRepository.count() : bookingRepository.countByHotelId(hotelId);
 
-        Long activeBookings = bookingRepository.countByStatus(BookingStatus.CONFIRMED);
-        Long completedBookings = bookingRepository.countByStatus(BookingStatus.COMPLETED);
-        Long cancelledBookings = bookingRepository.countByStatus(BookingStatus.CANCELLED);
+        Long activeBookings = countBookingsByStatus(hotelId, BookingStatus.CONFIRMED);
+        Long completedBookings = countBookingsByStatus(hotelId, BookingStatus.COMPLETED);
+        Long cancelledBookings = countBookingsByStatus(hotelId, BookingStatus.CANCELLED);
 
-        Double totalRevenue = bookingRepository.sumTotalPriceByStatusIn(Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED));
-        Double monthlyRevenue = bookingRepository.sumTotalPriceByStatusInAndCreatedAtBetween(
-                Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED),
-                startOfMonth.atStartOfDay(),
-                endOfMonth.atTime(23, 59, 59));
+        Double totalRevenue = hotelId == null
+                ? bookingRepository.sumTotalPriceByStatusIn(REVENUE_STATUSES)
+                : bookingRepository.sumTotalPriceByHotelIdAndStatusIn(hotelId, REVENUE_STATUSES);
+        Double monthlyRevenue = sumRevenueBetween(hotelId, startOfMonth, endOfMonth);
 
-        Long newUsersThisMonth = userRepository.countByCreatedAtBetween(
-                startOfMonth.atStartOfDay(),
-                endOfMonth.atTime(23, 59, 59));
-
-        Long newBookingsThisMonth = bookingRepository.countByCreatedAtBetween(
-                startOfMonth.atStartOfDay(),
-                endOfMonth.atTime(23, 59, 59));
+        Long newUsersThisMonth = countNewUsersBetween(hotelId, startOfMonth, endOfMonth);
+        Long newBookingsThisMonth = countBookingsBetween(hotelId, startOfMonth, endOfMonth);
 
         String scope = getScopeByUserType(currentUser.getType().name());
 
@@ -83,7 +89,7 @@ public class DashboardService {
                 .completedBookings(completedBookings)
                 .cancelledBookings(cancelledBookings)
                 .totalRevenue(totalRevenue != null ? totalRevenue : 0.0)
-                .monthlyRevenue(monthlyRevenue != null ? monthlyRevenue : 0.0)
+                .monthlyRevenue(monthlyRevenue)
                 .newUsersThisMonth(newUsersThisMonth)
                 .newBookingsThisMonth(newBookingsThisMonth)
                 .scope(scope)
@@ -91,33 +97,21 @@ public class DashboardService {
     }
 
     public List<BookingTrendResponse> getBookingTrends(int months) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
         List<BookingTrendResponse> trends = new ArrayList<>();
         var currentDate = LocalDate.now();
 
         for (int i = months - 1; i >= 0; i--) {
             var targetDate = currentDate.minusMonths(i);
-            var startOfMonth = targetDate.withDayOfMonth(1);
-            var endOfMonth = targetDate.withDayOfMonth(targetDate.lengthOfMonth());
-
-            Long bookings = bookingRepository.countByCreatedAtBetween(
-                    startOfMonth.atStartOfDay(),
-                    endOfMonth.atTime(23, 59, 59));
-
-            Double revenue = bookingRepository.sumTotalPriceByStatusInAndCreatedAtBetween(
-                    Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED),
-                    startOfMonth.atStartOfDay(),
-                    endOfMonth.atTime(23, 59, 59));
-
-            Long newUsers = userRepository.countByCreatedAtBetween(
-                    startOfMonth.atStartOfDay(),
-                    endOfMonth.atTime(23, 59, 59));
+            var startOfMonth = targetDate.withDayOfMonth(1).atStartOfDay();
+            var endOfMonth = targetDate.withDayOfMonth(targetDate.lengthOfMonth()).atTime(23, 59, 59);
 
             trends.add(BookingTrendResponse.builder()
                     .month(targetDate.format(DateTimeFormatter.ofPattern("MM")))
                     .year(String.valueOf(targetDate.getYear()))
-                    .bookings(bookings)
-                    .revenue(revenue != null ? revenue : 0.0)
-                    .newUsers(newUsers)
+                    .bookings(countBookingsBetween(hotelId, startOfMonth, endOfMonth))
+                    .revenue(sumRevenueBetween(hotelId, startOfMonth, endOfMonth))
+                    .newUsers(countNewUsersBetween(hotelId, startOfMonth, endOfMonth))
                     .build());
         }
 
@@ -125,8 +119,13 @@ public class DashboardService {
     }
 
     public List<TopHotelResponse> getTopHotels(int limit) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
         var startDate = LocalDate.now().minusMonths(6).atStartOfDay();
-        return hotelRepository.findTopHotelsByBookingCount(limit, 6, startDate).stream()
+        List<Object> rows = hotelId == null
+                ? hotelRepository.findTopHotelsByBookingCount(limit, 6, startDate)
+                : hotelRepository.findTopHotelsByBookingCountForHotel(hotelId, 6, startDate);
+
+        List<TopHotelResponse> topHotels = rows.stream()
                 .map(result -> {
                     Object[] row = (Object[]) result;
                     return TopHotelResponse.builder()
@@ -134,23 +133,43 @@ public class DashboardService {
                             .hotelName((String) row[1])
                             .totalBookings(((Number) row[2]).longValue())
                             .totalRevenue(((Number) row[3]).doubleValue())
-                            .averageRating(((Number) row[4]).doubleValue())
+                            .averageRating(BigDecimal.valueOf(((Number) row[4]).doubleValue()).setScale(1, RoundingMode.HALF_UP).doubleValue())
                             .occupancyRate(((Number) row[5]).intValue())
                             .build();
                 })
                 .collect(Collectors.toList());
+
+        if (!topHotels.isEmpty()) {
+            // up to last night: a window ending today is never cached, and tonight's stays are not complete yet
+            Map<Long, Double> occupancy = occupancyService.computeOccupancy(startDate.toLocalDate(), LocalDate.now().minusDays(1),
+                            topHotels.stream().map(TopHotelResponse::getHotelId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(HotelOccupancyResponse::getHotelId, HotelOccupancyResponse::getOccupancyRate));
+            topHotels.forEach(hotel -> hotel.setOccupancyRate(
+                    (int) Math.round(occupancy.getOrDefault(hotel.getHotelId(), 0.0))));
+        }
+
+        return topHotels;
+    }
+
+    public List<HotelOccupancyResponse> getOccupancy(LocalDate from, LocalDate to) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
+        return occupancyService.computeOccupancy(from, to, hotelId == null ? null : List.of(hotelId));
     }
 
     public List<RoomTypeDistributionResponse> getRoomTypeDistribution() {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
         var roomTypes = Arrays.asList(TypeRoom.STANDARD, TypeRoom.SUITE, TypeRoom.CONFERENCE, TypeRoom.DELUXE);
         var colors = Arrays.asList("#1890ff", "#52c41a", "#faad14", "#f5222d");
 
         List<RoomTypeDistributionResponse> distribution = new ArrayList<>();
-        Long totalRooms = roomRepository.countByIsDeletedFalse();
+        Long totalRooms = countRooms(hotelId);
 
         for (int i = 0; i < roomTypes.size(); i++) {
             TypeRoom roomType = roomTypes.get(i);
-            Long count = roomRepository.countByTypeRoomAndIsDeletedFalse(roomType);
+            Long count = hotelId == null
+                    ? roomRepository.countByTypeRoomAndIsDeletedFalse(roomType)
+                    : roomRepository.countByHotelIdAndTypeRoomAndIsDeletedFalse(hotelId, roomType);
             Double percentage = totalRooms > 0 ? (count.doubleValue() / totalRooms) * 100 : 0.0;
 
             distribution.add(RoomTypeDistributionResponse.builder()
@@ -165,35 +184,95 @@ public class DashboardService {
     }
 
     public Map<String, Object> getRevenueStatistics(int months) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
         var currentDate = LocalDate.now();
         var startOfYear = currentDate.withDayOfYear(1);
         var endOfYear = currentDate.withDayOfYear(currentDate.lengthOfYear());
+        var startOfMonth = currentDate.withDayOfMonth(1);
+        var endOfMonth = currentDate.withDayOfMonth(currentDate.lengthOfMonth());
 
-        Double yearlyRevenue = bookingRepository.sumTotalPriceByStatusInAndCreatedAtBetween(
-                Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED),
-                startOfYear.atStartOfDay(),
-                endOfYear.atTime(23, 59, 59));
-
-        Double monthlyRevenue = getStatistics().getMonthlyRevenue();
-        Double dailyRevenue = bookingRepository.sumTotalPriceByStatusInAndCreatedAtBetween(
-                Arrays.asList(BookingStatus.COMPLETED, BookingStatus.CONFIRMED),
-                currentDate.atStartOfDay(),
-                currentDate.atTime(23, 59, 59));
+        Double yearlyRevenue = sumRevenueBetween(hotelId, startOfYear.atStartOfDay(), endOfYear.atTime(23, 59, 59));
+        Double monthlyRevenue = sumRevenueBetween(hotelId, startOfMonth.atStartOfDay(), endOfMonth.atTime(23, 59, 59));
+        Double dailyRevenue = sumRevenueBetween(hotelId, currentDate.atStartOfDay(), currentDate.atTime(23, 59, 59));
 
         Map<String, Object> revenueStats = new HashMap<>();
-        revenueStats.put("yearlyRevenue", yearlyRevenue != null ? yearlyRevenue : 0.0);
+        revenueStats.put("yearlyRevenue", yearlyRevenue);
         revenueStats.put("monthlyRevenue", monthlyRevenue);
-        revenueStats.put("dailyRevenue", dailyRevenue != null ? dailyRevenue : 0.0);
-        revenueStats.put("averageOrderValue", getAverageOrderValue());
+        revenueStats.put("dailyRevenue", dailyRevenue);
+        revenueStats.put("averageOrderValue", getAverageOrderValue(hotelId));
 
         return revenueStats;
     }
 
-    private Double getAverageOrderValue() {
-        var avgResult = bookingRepository.findAverageOrderValue();
+    public List<GuestAnalyticsResponse> getGuestAnalytics(int months) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
+        return guestAnalyticsService.getMonthlyAnalytics(hotelId, months);
+    }
+
+    public Map<String, Object> getUniqueGuests(LocalDate from, LocalDate to) {
+        Long hotelId = resolveHotelScope(userContext.getCurrentUser());
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("uniqueGuests", guestAnalyticsService.countUniqueGuests(hotelId, from, to));
+        return result;
+    }
+
+    public DashboardLiveResponse getLiveSnapshot() {
+        return dashboardLiveService.getSnapshot(resolveHotelScope(userContext.getCurrentUser()));
+    }
+
+    private Double getAverageOrderValue(Long hotelId) {
+        var avgResult = hotelId == null
+                ? bookingRepository.findAverageOrderValue()
+                : bookingRepository.findAverageOrderValueByHotelId(hotelId);
         return avgResult != null ? avgResult : 0.0;
     }
 
+    /**
+     * Returns the hotel the current user is limited to, or {@code null} when the user may see system-wide data.
+     */
+    private Long resolveHotelScope(User user) {
+        if (user.getType() == UserType.MANAGER || user.getType() == UserType.STAFF) {
+            if (user.getHotel() == null) {
+                throw new BadRequestException("User does not own any hotel");
+            }
+            return user.getHotel().getId();
+        }
+        return null;
+    }
+
+    private Long countRooms(Long hotelId) {
+        return hotelId == null
+                ? roomRepository.countByIsDeletedFalse()
+                : roomRepository.countByHotelIdAndIsDeletedFalse(hotelId);
+    }
+
+    private Long countBookingsByStatus(Long hotelId, BookingStatus status) {
+        return hotelId == null
+                ? bookingRepository.countByStatus(status)
+                : bookingRepository.countByHotelIdAndStatus(hotelId, status);
+    }
+
+    private Long countBookingsBetween(Long hotelId, LocalDateTime start, LocalDateTime end) {
+        return hotelId == null
+                ? bookingRepository.countByCreatedAtBetween(start, end)
+                : bookingRepository.countByHotelIdAndCreatedAtBetween(hotelId, start, end);
+    }
+
+    private Long countNewUsersBetween(Long hotelId, LocalDateTime start, LocalDateTime end) {
+        return hotelId == null
+                ? userRepository.countByCreatedAtBetween(start, end)
+                : guestAnalyticsService.countUniqueGuests(hotelId, start.toLocalDate(), end.toLocalDate());
+    }
+
+    private Double sumRevenueBetween(Long hotelId, LocalDateTime start, LocalDateTime end) {
+        Double revenue = hotelId == null
+                ? bookingRepository.sumTotalPriceByStatusInAndCreatedAtBetween(REVENUE_STATUSES, start, end)
+                : bookingRepository.sumTotalPriceByHotelIdAndStatusInAndCreatedAtBetween(hotelId, REVENUE_STATUSES, start, end);
+        return revenue != null ? revenue : 0.0;
+    }
+
     private String getScopeByUserType(String userType) {
         switch (userType) {
             case "SYSTEM_ADMIN":
@@ -0,0 +1,163 @@
+package com.booking.booking.service;
+
+import com.booking.booking.model.EmailOutbox;
+import com.booking.booking.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Drains {@code tbl_email_outbox}. Due emails are claimed with {@code FOR UPDATE SKIP LOCKED} and handed to the mail
+ * sender as one batch, which sends them all over a single SMTP connection. An email that fails is retried with
+ * exponential backoff and parked, with its last error but without its content, after
+ * {@code email.outbox.max-attempts}.
+ */
+@Service
+@Slf4j(topic = "EMAIL-DISPATCHER")
+public class EmailDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    public EmailDispatcher(EmailOutboxRepository emailOutboxRepository,
+                           EmailService emailService,
+                           JavaMailSender mailSender,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sentCounter = meterRegistry.counter("email.outbox.messages", "outcome", "sent");
+        this.failedCounter = meterRegistry.counter("email.outbox.messages", "outcome", "failed");
+    }
+
+    /**
+     * Emails parked by earlier versions kept their plain-text body, which could hold a password or an OTP.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void clearParked() {
+        Integer cleared = transactionTemplate.execute(status -> emailOutboxRepository.clearParked(maxAttempts));
+        if (cleared != null && cleared > 0) {
+            log.info("Đã xóa nội dung của {} email bị bỏ", cleared);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.interval-ms:1000}")
+    public void dispatch() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> dispatchBatch());
+        } while (claimed != null && claimed == batchSize);
+    }
+
+    /**
+     * @return how many rows were claimed, or 0 after a failure so the caller backs off until the next poll
+     */
+    private int dispatchBatch() {
+        List<EmailOutbox> claimed = emailOutboxRepository.claimDue(maxAttempts, batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>(claimed.size() * 2);
+        Map<EmailOutbox, Runnable> onSent = new IdentityHashMap<>();
+        Map<EmailOutbox, Exception> failures = new IdentityHashMap<>();
+        for (EmailOutbox email : claimed) {
+            try {
+                EmailService.PreparedEmail prepared = emailService.prepare(email);
+                messages.put(prepared.message(), email);
+                onSent.put(email, prepared.onSent());
+            } catch (Exception e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                Map<Object, Exception> failedMessages = e.getFailedMessages();
+                if (failedMessages.isEmpty()) {
+                    // connection or authentication failure: nothing was sent
+                    messages.values().forEach(email -> failures.put(email, e));
+                } else {
+                    failedMessages.forEach((message, cause) -> failures.put(messages.get(message), cause));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(email -> failures.put(email, e));
+            }
+        }
+
+        List<EmailOutbox> sent = new ArrayList<>(claimed.size());
+        long now = System.currentTimeMillis();
+        for (EmailOutbox email : claimed) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                sent.add(email);
+                afterSend(email, onSent.get(email));
+                continue;
+            }
+            int attempts = email.getAttempts() + 1;
+            long delay = Math.min(maxBackoffMs, backoffMs << Math.min(attempts - 1, 20));
+            email.setAttempts(attempts);
+            email.setNextAttemptAt(new Date(now + delay));
+            String message = String.valueOf(failure.getMessage());
+            email.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+            if (attempts >= maxAttempts) {
+                email.setBody(null);
+                email.setVariables(null);
+                log.error("Bỏ email {} đến {} sau {} lần thử: {}", email.getId(), email.getRecipient(), attempts, message);
+            }
+        }
+
+        emailOutboxRepository.deleteAllInBatch(sent);
+        sentCounter.increment(sent.size());
+        if (!failures.isEmpty()) {
+            failedCounter.increment(failures.size());
+            log.warn("Email outbox: {} email gửi thành công, {} lỗi", sent.size(), failures.size());
+            return 0;
+        }
+        log.debug("Email outbox: đã gửi {} email", sent.size());
+        return claimed.size();
+    }
+
+    private void afterSend(EmailOutbox email, Runnable onSent) {
+        try {
+            onSent.run();
+        } catch (RuntimeException e) {
+            // runs in its own transaction, so the batch still commits; the email is out and must not be sent again
+            log.error("Email {} đến {} đã gửi nhưng không hoàn tất được: {}", email.getId(), email.getRecipient(),
+                    e.getMessage());
+        }
+    }
+}
@@ -1,32 +1,46 @@
 package com.booking.booking.service;
 
-import com.booking.booking.dto.request.VerifyAccountInfo;
+import com.booking.booking.model.EmailOutbox;
+import com.booking.booking.repository.EmailOutboxRepository;
 import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Queues emails in {@code tbl_email_outbox}, in the caller's transaction, for {@link EmailDispatcher} to send.
+ * Templates are rendered when the email is sent, not when it is queued; emails carrying a secret (verification link,
+ * temporary password, OTP) create it at that point too, so no secret is ever stored in the outbox.
+ */
 @Service
 @Slf4j(topic = "EMAIL-SERVICE")
 @RequiredArgsConstructor
 public class EmailService {
 
+    private static final String VERIFICATION_TEMPLATE = "email-verification";
+    private static final String TEMPORARY_PASSWORD = "temporary-password";
+    private static final String PASSWORD_OTP = "password-otp";
+
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
     private final RedisService redisService;
+    private final PasswordResetService passwordResetService;
+    private final EmailOutboxRepository emailOutboxRepository;
     private final Gson gson;
 
     @Value("${spring.mail.username}")
@@ -35,52 +49,103 @@ public class EmailService {
     @Value("${spring.sendgrid.verification-link}")
     private String verificationLink;
 
+    @Transactional
     public void sendSimpleEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(from);
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-
-        mailSender.send(message);
-        log.info("Đã gửi email đơn giản đến {}", to);
+        enqueue(to, subject, null, null, body);
+        log.info("Đã xếp hàng email đơn giản đến {}", to);
     }
 
+    /**
+     * Queues the account verification email; its one-time link is created when the email is actually sent, so the
+     * link's 5 minute lifetime does not run while the email waits in the queue.
+     */
+    @Transactional
     public void sendVerificationEmail(String to, String username) {
-        String secretCode = UUID.randomUUID().toString();
-        String fullLink = verificationLink + "?secretCode=" + secretCode;
+        enqueue(to, "Xác thực tài khoản", VERIFICATION_TEMPLATE, gson.toJson(Map.of("name", username)), null);
+        log.info("Đã xếp hàng email xác thực đến {}", to);
+    }
 
-        redisService.setWithTTL(secretCode, username, Duration.ofMinutes(5));
+    /**
+     * Queues an email with a new random password; the password is set on the account once the email was delivered.
+     */
+    @Transactional
+    public void sendTemporaryPasswordEmail(String to, String username) {
+        enqueue(to, "Reset password", TEMPORARY_PASSWORD, gson.toJson(Map.of("username", username)), null);
+        log.info("Đã xếp hàng email đặt lại mật khẩu đến {}", to);
+    }
 
-        Context context = new Context();
-        context.setVariable("name", username);
-        context.setVariable("verificationLink", fullLink);
+    /**
+     * Queues an email with a password reset OTP; the OTP is issued, and starts its 5 minutes, when the email is sent.
+     */
+    @Transactional
+    public void sendPasswordOtpEmail(String to, String username) {
+        enqueue(to, "OTP for Forgot Password request", PASSWORD_OTP, gson.toJson(Map.of("username", username)), null);
+        log.info("Đã xếp hàng email OTP đến {}", to);
+    }
 
-        String htmlContent = templateEngine.process("email-verification", context);
+    /**
+     * A message ready to send, and what to do once it was delivered.
+     */
+    record PreparedEmail(MimeMessage message, Runnable onSent) {
+    }
 
-        sendHtmlEmail(to, "Xác thực tài khoản", htmlContent);
+    PreparedEmail prepare(EmailOutbox email) throws MessagingException {
+        Runnable onSent = () -> {
+        };
+        boolean html = email.getTemplate() != null && !isSecretText(email.getTemplate());
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (TEMPORARY_PASSWORD.equals(email.getTemplate())) {
+            String username = variablesOf(email).get("username").toString();
+            String password = passwordResetService.newTemporaryPassword();
+            helper.setText(password);
+            onSent = () -> passwordResetService.applyTemporaryPassword(username, password);
+        } else if (PASSWORD_OTP.equals(email.getTemplate())) {
+            helper.setText(String.valueOf(passwordResetService.issueOtp(variablesOf(email).get("username").toString())));
+        } else if (html) {
+            helper.setText(render(email), true);
+        } else {
+            helper.setText(email.getBody());
+        }
+        return new PreparedEmail(message, onSent);
     }
 
-    public void sendHtmlEmail(String to, String subject, String htmlBody) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+    private static boolean isSecretText(String template) {
+        return TEMPORARY_PASSWORD.equals(template) || PASSWORD_OTP.equals(template);
+    }
 
-            helper.setFrom(from);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
+    private Map<String, Object> variablesOf(EmailOutbox email) {
+        return email.getVariables() == null ? Map.of()
+                : gson.fromJson(email.getVariables(), new TypeToken<Map<String, Object>>() {
+        }.getType());
+    }
+
+    private String render(EmailOutbox email) {
+        Map<String, Object> variables = variablesOf(email);
+        Context context = new Context();
+        context.setVariables(variables);
 
-            mailSender.send(message);
-            log.info("Gửi email HTML đến {} thành công", to);
-        } catch (MessagingException e) {
-            log.error("Gửi email HTML đến {} thất bại: {}", to, e.getMessage());
+        if (VERIFICATION_TEMPLATE.equals(email.getTemplate())) {
+            String secretCode = UUID.randomUUID().toString();
+            redisService.setWithTTL(secretCode, String.valueOf(variables.get("name")), Duration.ofMinutes(5));
+            context.setVariable("verificationLink", verificationLink + "?secretCode=" + secretCode);
         }
+        return templateEngine.process(email.getTemplate(), context);
     }
 
-    @KafkaListener(topics = "verify-account-topic", groupId = "verify-account-group")
-    public void emailVerificationByKafka(String message) {
-        VerifyAccountInfo info = gson.fromJson(message, VerifyAccountInfo.class);
-        sendVerificationEmail(info.getEmail(), info.getUsername());
+    private void enqueue(String to, String subject, String template, String variables, String body) {
+        Date now = new Date();
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .template(template)
+                .variables(variables)
+                .body(body)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
     }
 }
@@ -12,9 +12,11 @@ import java.util.List;
 public class EnhancedAIChatService {
 
     private final HotelRAGService ragService;
+    private final SemanticAnswerCache answerCache;
 
-    public EnhancedAIChatService(HotelRAGService ragService) {
+    public EnhancedAIChatService(HotelRAGService ragService, SemanticAnswerCache answerCache) {
         this.ragService = ragService;
+        this.answerCache = answerCache;
     }
 
     // @Cacheable(value = "hotelSearch", key = "#question.toLowerCase().trim()", unless = "#result == null || #result.isEmpty()")
@@ -29,7 +31,9 @@ public class EnhancedAIChatService {
         String normalizedQuestion = question.toLowerCase().trim();
         log.info("Đang xử lý câu hỏi: {}", normalizedQuestion);
 
-        List<HotelRAGService.HotelSuggestionDTO> result = ragService.searchAndAnswer(normalizedQuestion);
+        HotelRAGService.SearchConstraints constraints = ragService.extractConstraints(normalizedQuestion);
+        List<HotelRAGService.HotelSuggestionDTO> result = answerCache.get(normalizedQuestion, constraints,
+                () -> ragService.searchAndAnswer(normalizedQuestion, constraints));
 
         long totalTime = System.currentTimeMillis() - startTime;
         log.info("Hoàn thành xử lý câu hỏi trong {}ms", totalTime);
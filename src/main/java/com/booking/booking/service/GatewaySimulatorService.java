@@ -0,0 +1,185 @@
+package com.booking.booking.service;
+
+import com.booking.booking.dto.request.CreateMomoRequest;
+import com.booking.booking.dto.response.CreateMomoResponse;
+import com.booking.booking.util.VnpayUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stands in for MoMo and VNPay under the {@code gateway-sim} profile so the payment flow can be load-tested locally.
+ * It checks the request signatures like the real gateways, answers after a configurable latency, fails or declines a
+ * configurable share of payments, and sends back correctly signed MoMo IPNs and VNPay return redirects.
+ */
+@Service
+@Profile("gateway-sim")
+@Slf4j(topic = "GATEWAY-SIMULATOR")
+public class GatewaySimulatorService {
+
+    private final PaymentSigner paymentSigner;
+    private final RestClient restClient = RestClient.create();
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, r -> {
+        Thread thread = new Thread(r, "gateway-sim");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong transactionIds = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${momo.access-key}")
+    private String momoAccessKey;
+
+    @Value("${payment.vnPay.returnUrl}")
+    private String vnpayReturnUrl;
+
+    @Value("${gateway-sim.latency-ms:50}")
+    private long latencyMs;
+
+    @Value("${gateway-sim.latency-jitter-ms:100}")
+    private long latencyJitterMs;
+
+    @Value("${gateway-sim.failure-rate:0.0}")
+    private double failureRate;
+
+    @Value("${gateway-sim.decline-rate:0.05}")
+    private double declineRate;
+
+    @Value("${gateway-sim.ipn-delay-ms:500}")
+    private long ipnDelayMs;
+
+    public GatewaySimulatorService(PaymentSigner paymentSigner) {
+        this.paymentSigner = paymentSigner;
+    }
+
+    /**
+     * MoMo {@code /create}: answers with a pay URL and later posts the IPN to the request's {@code ipnUrl}.
+     */
+    public CreateMomoResponse createMomo(CreateMomoRequest request) {
+        simulateLatency();
+
+        CreateMomoResponse response = new CreateMomoResponse();
+        response.setPartnerCode(request.getPartnerCode());
+        response.setRequestId(request.getRequestId());
+        response.setOrderId(request.getOrderId());
+        response.setAmount(request.getAmount());
+        response.setResponseTime(System.currentTimeMillis());
+
+        String raw = String.format(
+                "accessKey=%s&amount=%s&extraData=%s&ipnUrl=%s&orderId=%s&orderInfo=%s&partnerCode=%s&redirectUrl=%s&requestId=%s&requestType=%s",
+                momoAccessKey, request.getAmount(), request.getExtraData(), request.getIpnUrl(), request.getOrderId(),
+                request.getOrderInfo(), request.getPartnerCode(), request.getRedirectUrl(), request.getRequestId(),
+                request.getRequestType());
+        if (!paymentSigner.verifyMomo(raw, request.getSignature())) {
+            response.setResultCode(11);
+            response.setMessage("Chữ ký không hợp lệ");
+            return response;
+        }
+
+        long transId = transactionIds.incrementAndGet();
+        boolean declined = ThreadLocalRandom.current().nextDouble() < declineRate;
+        scheduler.schedule(() -> sendMomoIpn(request, transId, declined), ipnDelayMs, TimeUnit.MILLISECONDS);
+
+        response.setResultCode(0);
+        response.setMessage("Thành công.");
+        response.setPayUrl("/sim/momo/pay?orderId=" + request.getOrderId());
+        response.setQrCodeUrl("momo://sim?orderId=" + request.getOrderId());
+        return response;
+    }
+
+    /**
+     * VNPay payment page: verifies the signed payment URL and returns the signed return URL the browser would be
+     * redirected to.
+     */
+    public String payVnpay(Map<String, String> params) {
+        simulateLatency();
+
+        Map<String, String> signed = new HashMap<>(params);
+        String secureHash = signed.remove("vnp_SecureHash");
+        signed.remove("vnp_SecureHashType");
+        if (!paymentSigner.verifyVnpay(VnpayUtil.canonicalQuery(signed).hashData(), secureHash)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid vnp_SecureHash");
+        }
+
+        boolean declined = ThreadLocalRandom.current().nextDouble() < declineRate;
+        Map<String, String> callback = new HashMap<>();
+        callback.put("vnp_Amount", params.get("vnp_Amount"));
+        callback.put("vnp_BankCode", params.getOrDefault("vnp_BankCode", "NCB"));
+        callback.put("vnp_OrderInfo", params.get("vnp_OrderInfo"));
+        callback.put("vnp_PayDate", new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()));
+        callback.put("vnp_ResponseCode", declined ? "24" : "00");
+        callback.put("vnp_TmnCode", params.get("vnp_TmnCode"));
+        callback.put("vnp_TransactionNo", declined ? "0" : String.valueOf(transactionIds.incrementAndGet()));
+        callback.put("vnp_TransactionStatus", declined ? "02" : "00");
+        callback.put("vnp_TxnRef", params.get("vnp_TxnRef"));
+
+        VnpayUtil.CanonicalQuery query = VnpayUtil.canonicalQuery(callback);
+        return vnpayReturnUrl + "?" + query.query() + "&vnp_SecureHash=" + paymentSigner.signVnpay(query.hashData());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void sendMomoIpn(CreateMomoRequest request, long transId, boolean declined) {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("amount", String.valueOf(request.getAmount()));
+        params.put("extraData", request.getExtraData());
+        params.put("message", declined ? "Giao dịch bị từ chối bởi người dùng." : "Thành công.");
+        params.put("orderId", request.getOrderId());
+        params.put("orderInfo", request.getOrderInfo());
+        params.put("orderType", "momo_wallet");
+        params.put("partnerCode", request.getPartnerCode());
+        params.put("payType", "qr");
+        params.put("requestId", request.getRequestId());
+        params.put("responseTime", String.valueOf(System.currentTimeMillis()));
+        params.put("resultCode", declined ? "1006" : "0");
+        params.put("transId", String.valueOf(transId));
+
+        StringBuilder raw = new StringBuilder();
+        params.forEach((key, value) -> raw.append(raw.isEmpty() ? "" : "&").append(key).append('=').append(value));
+        params.put("signature", paymentSigner.signMomo(raw.toString()));
+
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        params.forEach(form::add);
+        try {
+            restClient.post()
+                    .uri(request.getIpnUrl())
+                    .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                    .body(form)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (Exception e) {
+            log.warn("Gửi IPN giả lập cho {} thất bại: {}", request.getOrderId(), e.getMessage());
+        }
+    }
+
+    private void simulateLatency() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (latencyJitterMs > 0 ? random.nextLong(latencyJitterMs + 1) : 0);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (random.nextDouble() < failureRate) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Simulated gateway failure");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.dto.response.GuestAnalyticsResponse;
+import com.booking.booking.event.BookingStatusChangedEvent;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.repository.BookingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Distinct and repeat guest counts backed by Redis HyperLogLog sketches, one per hotel per day and per month. A visit
+ * is bucketed by the booking's creation date, both live and in the backfill, like the other dashboard figures.
+ */
+@Service
+@Slf4j(topic = "GUEST-ANALYTICS-SERVICE")
+public class GuestAnalyticsService {
+
+    private static final String KEY_PREFIX = "hll:guests:";
+    private static final String BACKFILL_MARKER = KEY_PREFIX + "backfilled";
+    private static final String BACKFILL_LOCK = KEY_PREFIX + "backfilling";
+    private static final Duration BACKFILL_LOCK_TTL = Duration.ofHours(1);
+    private static final String GLOBAL_SCOPE = "all";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Duration DAILY_TTL = Duration.ofDays(400);
+    private static final Duration MONTHLY_TTL = Duration.ofDays(3 * 366);
+    private static final int REPEAT_LOOKBACK_MONTHS = 12;
+    // each month costs 3 PFCOUNTs over up to 13 keys; repeat counts past this need sketches that have expired
+    private static final int MAX_MONTHS = 24;
+    private static final int BACKFILL_BATCH = 5000;
+    private static final List<BookingStatus> VISIT_STATUSES = List.of(
+            BookingStatus.CONFIRMED, BookingStatus.CHECKIN, BookingStatus.CHECKOUT, BookingStatus.COMPLETED);
+
+    private final StringRedisTemplate redisTemplate;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public GuestAnalyticsService(StringRedisTemplate redisTemplate,
+                                 BookingRepository bookingRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.redisTemplate = redisTemplate;
+        this.bookingRepository = bookingRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getNewStatus() != BookingStatus.CONFIRMED || event.getGuestId() == null) {
+            return;
+        }
+        try {
+            recordVisit(event.getHotelId(), event.getGuestId(), dayOf(event.getCreatedAt()));
+        } catch (Exception e) {
+            log.warn("Không ghi nhận được guest {} cho hotel {}: {}", event.getGuestId(), event.getHotelId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Seeds the sketches from existing bookings once. The marker key is only set when the backfill has completed, so
+     * a run cut short by a restart is repeated; the lock keeps two instances from running it at the same time.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(BACKFILL_MARKER))) {
+            return;
+        }
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(BACKFILL_LOCK,
+                String.valueOf(System.currentTimeMillis()), BACKFILL_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+
+        try {
+            long rows = readOnlyTransaction.execute(status -> {
+                Map<String, List<String>> buffer = new HashMap<>();
+                long count = 0;
+                try (Stream<Object[]> visits = bookingRepository.streamGuestVisits(VISIT_STATUSES)) {
+                    Iterator<Object[]> iterator = visits.iterator();
+                    while (iterator.hasNext()) {
+                        Object[] row = iterator.next();
+                        LocalDate day = dayOf((Date) row[2]);
+                        String guest = String.valueOf(row[1]);
+                        for (String key : keysFor((Long) row[0], day)) {
+                            buffer.computeIfAbsent(key, k -> new ArrayList<>()).add(guest);
+                        }
+                        if (++count % BACKFILL_BATCH == 0) {
+                            flush(buffer);
+                        }
+                    }
+                }
+                flush(buffer);
+                return count;
+            });
+            redisTemplate.opsForValue().set(BACKFILL_MARKER, String.valueOf(System.currentTimeMillis()));
+            log.info("Backfilled guest sketches from {} bookings", rows);
+        } catch (Exception e) {
+            log.error("Backfill guest sketches failed", e);
+        } finally {
+            redisTemplate.delete(BACKFILL_LOCK);
+        }
+    }
+
+    public long countUniqueGuests(Long hotelId, LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BadRequestException("Invalid date range");
+        }
+        String scope = scopeOf(hotelId);
+        List<String> keys = new ArrayList<>();
+        LocalDate cursor = from;
+        while (!cursor.isAfter(to)) {
+            YearMonth month = YearMonth.from(cursor);
+            if (cursor.getDayOfMonth() == 1 && !month.atEndOfMonth().isAfter(to)) {
+                keys.add(monthKey(scope, month));
+                cursor = month.plusMonths(1).atDay(1);
+            } else {
+                keys.add(dayKey(scope, cursor));
+                cursor = cursor.plusDays(1);
+            }
+        }
+        return size(keys);
+    }
+
+    public List<GuestAnalyticsResponse> getMonthlyAnalytics(Long hotelId, int months) {
+        months = Math.max(1, Math.min(months, MAX_MONTHS));
+        String scope = scopeOf(hotelId);
+        YearMonth current = YearMonth.now();
+        List<GuestAnalyticsResponse> result = new ArrayList<>();
+
+        for (int i = months - 1; i >= 0; i--) {
+            YearMonth month = current.minusMonths(i);
+            String monthKey = monthKey(scope, month);
+
+            List<String> priorKeys = new ArrayList<>(REPEAT_LOOKBACK_MONTHS);
+            for (int p = 1; p <= REPEAT_LOOKBACK_MONTHS; p++) {
+                priorKeys.add(monthKey(scope, month.minusMonths(p)));
+            }
+            List<String> unionKeys = new ArrayList<>(priorKeys);
+            unionKeys.add(monthKey);
+
+            long unique = size(List.of(monthKey));
+            long prior = size(priorKeys);
+            long union = size(unionKeys);
+            // |M ∩ P| = |M| + |P| - |M ∪ P|; clamp the HLL error so the estimate stays within [0, |M|]
+            long repeat = Math.min(unique, Math.max(0, unique + prior - union));
+
+            result.add(GuestAnalyticsResponse.builder()
+                    .month(month.format(DateTimeFormatter.ofPattern("MM")))
+                    .year(String.valueOf(month.getYear()))
+                    .uniqueGuests(unique)
+                    .repeatGuests(repeat)
+                    .repeatRate(unique > 0
+                            ? BigDecimal.valueOf(repeat * 100.0 / unique).setScale(1, RoundingMode.HALF_UP).doubleValue()
+                            : 0.0)
+                    .build());
+        }
+        return result;
+    }
+
+    private void recordVisit(Long hotelId, Long guestId, LocalDate day) {
+        String guest = String.valueOf(guestId);
+        for (String key : keysFor(hotelId, day)) {
+            redisTemplate.opsForHyperLogLog().add(key, guest);
+            redisTemplate.expire(key, key.contains(":d:") ? DAILY_TTL : MONTHLY_TTL);
+        }
+    }
+
+    private void flush(Map<String, List<String>> buffer) {
+        buffer.forEach((key, guests) -> {
+            redisTemplate.opsForHyperLogLog().add(key, guests.toArray(String[]::new));
+            redisTemplate.expire(key, key.contains(":d:") ? DAILY_TTL : MONTHLY_TTL);
+        });
+        buffer.clear();
+    }
+
+    private List<String> keysFor(Long hotelId, LocalDate day) {
+        String hotelScope = scopeOf(hotelId);
+        YearMonth month = YearMonth.from(day);
+        return List.of(
+                dayKey(hotelScope, day),
+                monthKey(hotelScope, month),
+                dayKey(GLOBAL_SCOPE, day),
+                monthKey(GLOBAL_SCOPE, month));
+    }
+
+    private long size(List<String> keys) {
+        Long size = redisTemplate.opsForHyperLogLog().size(keys.toArray(String[]::new));
+        return size != null ? size : 0L;
+    }
+
+    private static LocalDate dayOf(Date date) {
+        return date == null ? LocalDate.now() : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static String scopeOf(Long hotelId) {
+        return hotelId == null ? GLOBAL_SCOPE : "hotel:" + hotelId;
+    }
+
+    private static String dayKey(String scope, LocalDate day) {
+        return KEY_PREFIX + scope + ":d:" + day.format(DAY);
+    }
+
+    private static String monthKey(String scope, YearMonth month) {
+        return KEY_PREFIX + scope + ":m:" + month.format(MONTH);
+    }
+}
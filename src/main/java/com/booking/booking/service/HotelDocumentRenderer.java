@@ -0,0 +1,207 @@
+package com.booking.booking.service;
+
+import com.booking.booking.model.Hotel;
+import com.booking.booking.model.Room;
+import com.booking.booking.util.LocationRecognizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders hotels and rooms into vector store documents. Document ids are derived from the hotel/room id and each
+ * document carries a hash of its content, so the index can tell which documents changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j(topic = "HOTEL-DOCUMENT-RENDERER")
+public class HotelDocumentRenderer {
+
+    private final LocationRecognizer locationRecognizer;
+
+    /**
+     * Province keys by (province, district). Hotels share a few dozen provinces, so a full reindex would otherwise run
+     * the recognizer over the same handful of strings for every hotel.
+     */
+    private final Map<ProvinceSource, String> provinceKeys = new ConcurrentHashMap<>();
+
+    /**
+     * One overview document per active hotel plus one per available room; deleted hotels render nothing.
+     */
+    public List<Document> render(List<Hotel> hotels) {
+        List<Document> documents = new ArrayList<>();
+        for (Hotel hotel : hotels) {
+            if (hotel.isDeleted()) continue;
+
+            // Tạo document cho hotel overview
+            Document hotelDoc = createHotelDocument(hotel);
+            if (hotelDoc != null) {
+                documents.add(hotelDoc);
+            }
+
+            // Tạo documents cho từng phòng
+            if (hotel.getRooms() != null) {
+                for (Room room : hotel.getRooms()) {
+                    if (!room.isDeleted() && room.isAvailable()) {
+                        Document roomDoc = createRoomDocument(room, hotel);
+                        if (roomDoc != null) {
+                            documents.add(roomDoc);
+                        }
+                    }
+                }
+            }
+        }
+        return documents;
+    }
+
+    private String provinceKey(Hotel hotel) {
+        return provinceKeys.computeIfAbsent(new ProvinceSource(hotel.getProvince(), hotel.getDistrict()),
+                source -> locationRecognizer.provinceKey(source.province(), source.district()));
+    }
+
+    private record ProvinceSource(String province, String district) {
+    }
+
+    private Document buildDocument(String docKey, String text, Map<String, Object> metadata) {
+        metadata.put("id", docKey);
+        metadata.put("contentHash", contentHash(text, metadata));
+        String documentId = UUID.nameUUIDFromBytes(docKey.getBytes(StandardCharsets.UTF_8)).toString();
+        return new Document(documentId, text, metadata);
+    }
+
+    private String contentHash(String text, Map<String, Object> metadata) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update(new TreeMap<>(metadata).toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Document createHotelDocument(Hotel hotel) {
+        try {
+            // Tính giá phòng min/max
+            double minPrice = 0;
+            double maxPrice = 0;
+            boolean hasAvailableRooms = false;
+
+            if (hotel.getRooms() != null && !hotel.getRooms().isEmpty()) {
+                log.debug("Khách sạn '{}' có {} phòng", hotel.getName(), hotel.getRooms().size());
+
+                long availableRooms = hotel.getRooms().stream()
+                        .filter(room -> !room.isDeleted() && room.isAvailable())
+                        .count();
+                log.debug("Trong đó {} phòng available và không bị deleted", availableRooms);
+
+                List<Double> prices = hotel.getRooms().stream()
+                        .filter(room -> !room.isDeleted() && room.isAvailable())
+                        .map(Room::getPricePerNight)
+                        .filter(Objects::nonNull)
+                        .toList();
+
+                log.debug("Có {} phòng có giá hợp lệ", prices.size());
+
+                if (!prices.isEmpty()) {
+                    minPrice = prices.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+                    maxPrice = prices.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+                    hasAvailableRooms = true;
+                    log.debug("Khách sạn '{}' có phòng trống với giá từ {} đến {}", hotel.getName(), minPrice, maxPrice);
+                } else {
+                    log.debug("Khách sạn '{}' không có phòng nào có giá hợp lệ", hotel.getName());
+                }
+            } else {
+                log.debug("Khách sạn '{}' không có phòng nào", hotel.getName());
+            }
+
+            // Tạo text mô tả khách sạn
+            String text = String.format(
+                    "📍 KHÁCH SẠN TẠI %s, %s: %s\n" +
+                            "🏨 Tên: %s\n" +
+                            "📍 Địa chỉ: %s, %s, %s\n" +
+                            "⭐ Xếp hạng: %.1f sao\n" +
+                            "🛏️ Tổng số phòng: %d phòng\n" +
+                            "💰 Khoảng giá: %,.0f VND - %,.0f VND VND/đêm\n" +
+                            "🏷️ Loại phòng có sẵn: %s\n" +
+                            "✅ Tình trạng: %s\n",
+                    hotel.getDistrict(), hotel.getProvince(), hotel.getName(),
+                    hotel.getName(),
+                    hotel.getAddressDetail(), hotel.getDistrict(), hotel.getProvince(),
+                    hotel.getStarRating(),
+                    hotel.getTotalRooms(),
+                    minPrice, maxPrice,
+                    getRoomTypesString(hotel),
+                    hasAvailableRooms ? "Còn phòng trống" : "Hết phòng"
+            );
+
+            // Tạo metadata
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("type", "hotel_overview");
+            metadata.put("hotelId", hotel.getId());
+            metadata.put("hotelName", hotel.getName());
+            metadata.put("district", hotel.getDistrict());
+            metadata.put("province", hotel.getProvince());
+            metadata.put("provinceKey", provinceKey(hotel));
+            metadata.put("starRating", hotel.getStarRating());
+            metadata.put("minPrice", minPrice);
+            metadata.put("maxPrice", maxPrice);
+            metadata.put("hasAvailableRooms", hasAvailableRooms);
+
+            return buildDocument("hotel_" + hotel.getId(), text, metadata);
+
+        } catch (Exception e) {
+            log.error("Lỗi khi tạo document cho khách sạn {}", hotel.getId(), e);
+            return null;
+        }
+    }
+
+    private Document createRoomDocument(Room room, Hotel hotel) {
+        try {
+            String text = String.format(
+                    "🛏️ PHÒNG: %s\n" +
+                            "🔢 Sức chứa: %d người\n" +
+                            "💰 Giá: %,.0f VND/đêm\n" +
+                            "✅ Trạng thái: %s\n" +
+                            "🏨 Khách sạn: %s (%s, %s)\n",
+                    room.getTypeRoom() != null ? room.getTypeRoom().name() : "STANDARD",
+                    room.getCapacity(),
+                    room.getPricePerNight(),
+                    room.isAvailable() ? "Có sẵn" : "Không có sẵn",
+                    hotel.getName(), hotel.getDistrict(), hotel.getProvince()
+            );
+
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("type", "room");
+            metadata.put("hotelId", hotel.getId());
+            metadata.put("hotelName", hotel.getName());
+            metadata.put("district", hotel.getDistrict());
+            metadata.put("province", hotel.getProvince());
+
+            return buildDocument("room_" + room.getId(), text, metadata);
+
+        } catch (Exception e) {
+            log.error("Lỗi khi tạo document cho phòng {}", room.getId(), e);
+            return null;
+        }
+    }
+
+    private String getRoomTypesString(Hotel hotel) {
+        if (hotel.getRooms() == null || hotel.getRooms().isEmpty()) {
+            return "";
+        }
+
+        return hotel.getRooms().stream()
+                .filter(room -> !room.isDeleted() && room.isAvailable())
+                .map(room -> room.getTypeRoom() != null ? room.getTypeRoom().name() : "STANDARD")
+                .distinct()
+                .reduce((a, b) -> a + ", " + b)
+                .orElse("");
+    }
+}
@@ -0,0 +1,296 @@
+package com.booking.booking.service;
+
+import com.booking.booking.model.VectorIndexEntry;
+import com.booking.booking.repository.HotelRepository;
+import com.booking.booking.repository.VectorIndexEntryRepository;
+import com.booking.booking.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the vector store in sync with the documents rendered from hotels and rooms.
+ * Hotels are read page by page and embedded in bounded batches, so memory does not grow with the catalog.
+ */
+@Service
+@Slf4j(topic = "HOTEL-INDEX-SERVICE")
+public class HotelIndexService {
+
+    private final VectorStore vectorStore;
+    private final HotelRepository hotelRepository;
+    private final VectorIndexEntryRepository vectorIndexEntryRepository;
+    private final TaskExecutor taskExecutor;
+    private final SemanticAnswerCache answerCache;
+    private final HotelDocumentRenderer documentRenderer;
+
+    private final Counter embeddedCounter;
+    private final Counter unchangedCounter;
+    private final Counter deletedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    @Value("${rag.index.page-size:50}")
+    private int pageSize;
+
+    @Value("${rag.index.batch-size:32}")
+    private int batchSize;
+
+    @Value("${rag.index.concurrency:3}")
+    private int concurrency;
+
+    @Value("${rag.index.max-docs-per-second:0}")
+    private double maxDocsPerSecond;
+
+    public HotelIndexService(VectorStore vectorStore,
+                             HotelRepository hotelRepository,
+                             VectorIndexEntryRepository vectorIndexEntryRepository,
+                             @Qualifier("taskExecutor") TaskExecutor taskExecutor,
+                             SemanticAnswerCache answerCache,
+                             HotelDocumentRenderer documentRenderer,
+                             MeterRegistry meterRegistry) {
+        this.vectorStore = vectorStore;
+        this.hotelRepository = hotelRepository;
+        this.vectorIndexEntryRepository = vectorIndexEntryRepository;
+        this.taskExecutor = taskExecutor;
+        this.answerCache = answerCache;
+        this.documentRenderer = documentRenderer;
+        this.embeddedCounter = meterRegistry.counter("rag.index.documents", "outcome", "embedded");
+        this.unchangedCounter = meterRegistry.counter("rag.index.documents", "outcome", "unchanged");
+        this.deletedCounter = meterRegistry.counter("rag.index.documents", "outcome", "deleted");
+        this.failedCounter = meterRegistry.counter("rag.index.documents", "outcome", "failed");
+        this.batchTimer = Timer.builder("rag.index.batch")
+                .description("Embedding and upsert latency per batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void indexAllHotels() {
+        indexAllHotels(new IndexProgress());
+    }
+
+    /**
+     * Indexes every active hotel, reporting into {@code progress}. A cancelled run stops after the page in flight and
+     * skips the sweep, since hotels it never reached would otherwise look deleted. A run with failed batches skips it
+     * too: their manifest rows still carry the previous run's {@code lastSeenAt}, and sweeping would delete vectors that
+     * are still valid.
+     */
+    public void indexAllHotels(IndexProgress progress) {
+        log.info("Bắt đầu indexing tất cả khách sạn vào vector store...");
+        long startTime = System.currentTimeMillis();
+        Date runStartedAt = new Date();
+        progress.setTotalHotels(hotelRepository.countByIsDeletedFalse());
+        if (vectorIndexEntryRepository.count() == 0) {
+            purgeUntracked();
+        }
+
+        Semaphore permits = new Semaphore(concurrency);
+        TokenBucket rateLimiter = maxDocsPerSecond > 0 ? new TokenBucket(maxDocsPerSecond) : null;
+
+        Long afterId = 0L;
+        List<Long> ids;
+        while (!progress.isCancelled()
+                && !(ids = hotelRepository.findActiveIdsAfter(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+            afterId = ids.get(ids.size() - 1);
+
+            List<Document> pageDocuments = documentRenderer.render(hotelRepository.findAllWithRoomsByIdIn(ids));
+            PageDiff diff = diff(ids, pageDocuments, runStartedAt);
+
+            for (int i = 0; i < diff.changed().size() && !progress.isCancelled(); i += batchSize) {
+                List<Document> batch = diff.changed().subList(i, Math.min(i + batchSize, diff.changed().size()));
+                List<VectorIndexEntry> entries = diff.entries().subList(i, Math.min(i + batchSize, diff.entries().size()));
+                if (rateLimiter != null) {
+                    rateLimiter.acquire(batch.size());
+                }
+                submitBatch(batch, entries, permits, progress);
+            }
+            progress.addDeleted(deleteEntries(diff.removed()));
+
+            progress.addHotels(ids.size());
+            progress.addDocuments(pageDocuments.size());
+            progress.addUnchanged(pageDocuments.size() - diff.changed().size());
+            long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+            log.info("Indexing: {}/{} khách sạn, {} documents ({} embedded, {} giữ nguyên), {} docs/s",
+                    progress.getHotels(), progress.getTotalHotels(), progress.getDocuments(), progress.getEmbedded(),
+                    progress.getUnchanged(), progress.getDocuments() * 1000 / elapsed);
+        }
+
+        awaitCompletion(permits);
+        if (progress.isCancelled()) {
+            if (progress.getEmbedded() > 0 || progress.getDeleted() > 0) {
+                answerCache.clear();
+            }
+            log.info("Đã hủy indexing sau {} khách sạn trong {}ms", progress.getHotels(), System.currentTimeMillis() - startTime);
+            return;
+        }
+        if (progress.getFailed() == 0) {
+            progress.addDeleted(sweep(runStartedAt));
+        } else {
+            log.warn("Bỏ qua dọn dẹp vì {} documents lỗi; khách sạn đã xóa sẽ được dọn ở lần chạy sau", progress.getFailed());
+        }
+        if (progress.getEmbedded() > 0 || progress.getDeleted() > 0) {
+            answerCache.clear();
+        }
+
+        log.info("Hoàn thành indexing {} khách sạn, {} documents trong {}ms: {} embedded, {} giữ nguyên, {} lỗi, {} đã xóa",
+                progress.getHotels(), progress.getDocuments(), System.currentTimeMillis() - startTime,
+                progress.getEmbedded(), progress.getUnchanged(), progress.getFailed(), progress.getDeleted());
+        if (progress.getFailed() > 0) {
+            throw new IllegalStateException(progress.getFailed() + " documents could not be embedded");
+        }
+    }
+
+    /**
+     * Re-embeds only the documents of one hotel that changed; a deleted hotel loses all of its documents.
+     */
+    public void reindexHotel(Long hotelId) {
+        long startTime = System.currentTimeMillis();
+        Date now = new Date();
+        List<Long> ids = List.of(hotelId);
+
+        List<Document> documents = documentRenderer.render(hotelRepository.findAllWithRoomsByIdIn(ids));
+        PageDiff diff = diff(ids, documents, now);
+
+        if (!diff.changed().isEmpty()) {
+            try {
+                batchTimer.record(() -> vectorStore.add(diff.changed()));
+                vectorIndexEntryRepository.saveAll(diff.entries());
+                embeddedCounter.increment(diff.changed().size());
+            } catch (RuntimeException e) {
+                failedCounter.increment(diff.changed().size());
+                throw e;
+            }
+        }
+        deleteEntries(diff.removed());
+        if (!diff.changed().isEmpty() || !diff.removed().isEmpty()) {
+            answerCache.evictHotel(hotelId);
+        }
+
+        log.info("Re-index khách sạn {}: {} embedded, {} giữ nguyên, {} đã xóa trong {}ms", hotelId,
+                diff.changed().size(), documents.size() - diff.changed().size(), diff.removed().size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Drops every indexed document and the manifest, then embeds everything again.
+     */
+    public void rebuildIndex(IndexProgress progress) {
+        List<VectorIndexEntry> entries;
+        while (!(entries = vectorIndexEntryRepository.findAll(PageRequest.of(0, 500)).getContent()).isEmpty()) {
+            vectorStore.delete(entries.stream().map(VectorIndexEntry::getDocumentId).toList());
+            vectorIndexEntryRepository.deleteAllInBatch(entries);
+        }
+        indexAllHotels(progress);
+    }
+
+    private PageDiff diff(List<Long> hotelIds, List<Document> documents, Date runStartedAt) {
+        Map<String, VectorIndexEntry> manifest = vectorIndexEntryRepository.findAllByHotelIdIn(hotelIds).stream()
+                .collect(Collectors.toMap(VectorIndexEntry::getDocKey, Function.identity()));
+
+        List<Document> changed = new ArrayList<>();
+        List<VectorIndexEntry> entries = new ArrayList<>();
+        List<String> unchangedKeys = new ArrayList<>();
+
+        for (Document doc : documents) {
+            String docKey = (String) doc.getMetadata().get("id");
+            String hash = (String) doc.getMetadata().get("contentHash");
+            VectorIndexEntry entry = manifest.remove(docKey);
+            if (entry != null && entry.getContentHash().equals(hash)) {
+                unchangedKeys.add(docKey);
+                continue;
+            }
+            changed.add(doc);
+            entries.add(VectorIndexEntry.builder()
+                    .docKey(docKey)
+                    .documentId(doc.getId())
+                    .hotelId((Long) doc.getMetadata().get("hotelId"))
+                    .contentHash(hash)
+                    .indexedAt(runStartedAt)
+                    .lastSeenAt(runStartedAt)
+                    .build());
+        }
+
+        if (!unchangedKeys.isEmpty()) {
+            vectorIndexEntryRepository.markSeen(unchangedKeys, runStartedAt);
+            unchangedCounter.increment(unchangedKeys.size());
+        }
+        return new PageDiff(changed, entries, new ArrayList<>(manifest.values()));
+    }
+
+    private void submitBatch(List<Document> batch, List<VectorIndexEntry> entries,
+                             Semaphore permits, IndexProgress progress) {
+        permits.acquireUninterruptibly();
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    batchTimer.record(() -> vectorStore.add(batch));
+                    vectorIndexEntryRepository.saveAll(entries);
+                    progress.addEmbedded(batch.size());
+                    embeddedCounter.increment(batch.size());
+                } catch (Exception e) {
+                    progress.addFailed(batch.size());
+                    failedCounter.increment(batch.size());
+                    log.error("Lỗi khi embed batch {} documents", batch.size(), e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void awaitCompletion(Semaphore permits) {
+        permits.acquireUninterruptibly(concurrency);
+        permits.release(concurrency);
+    }
+
+    /**
+     * With an empty manifest nothing in the store is tracked: these are documents written before the manifest existed
+     * (random ids, never matched by a diff) or left behind by a rebuild. Dropping them keeps hotels from appearing twice.
+     */
+    private void purgeUntracked() {
+        FilterExpressionBuilder b = new FilterExpressionBuilder();
+        vectorStore.delete(b.in("type", "hotel_overview", "room").build());
+        log.info("Manifest trống, đã xóa các documents không được theo dõi khỏi vector store");
+    }
+
+    /**
+     * Removes documents of hotels that were not visited in this run (deleted hotels).
+     */
+    private int sweep(Date runStartedAt) {
+        int swept = 0;
+        List<VectorIndexEntry> stale;
+        while (!(stale = vectorIndexEntryRepository.findNotSeenSince(runStartedAt, PageRequest.of(0, 500))).isEmpty()) {
+            swept += deleteEntries(stale);
+        }
+        return swept;
+    }
+
+    private int deleteEntries(List<VectorIndexEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        vectorStore.delete(entries.stream().map(VectorIndexEntry::getDocumentId).toList());
+        vectorIndexEntryRepository.deleteAllInBatch(entries);
+        deletedCounter.increment(entries.size());
+        return entries.size();
+    }
+
+    private record PageDiff(List<Document> changed, List<VectorIndexEntry> entries, List<VectorIndexEntry> removed) {
+    }
+}
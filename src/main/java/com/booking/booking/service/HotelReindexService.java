@@ -0,0 +1,100 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.event.BookingStatusChangedEvent;
+import com.booking.booking.event.HotelChangedEvent;
+import com.booking.booking.model.PendingReindex;
+import com.booking.booking.repository.PendingReindexRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns hotel, room and booking changes into per-hotel re-index requests on Kafka, written to the outbox in the
+ * transaction that made the change. The consumer records the hotel in {@code tbl_reindex_pending} before its offset is
+ * committed, and the flush re-embeds it after a quiet period; a restart in between loses nothing.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j(topic = "HOTEL-REINDEX-SERVICE")
+public class HotelReindexService {
+
+    private static final String TOPIC = "hotel-index-events";
+    /**
+     * Statuses under which {@code BookingUtil} marks the booked rooms unavailable; only leaving or entering this group
+     * changes what the index says about the hotel.
+     */
+    private static final Set<BookingStatus> HOLDS_ROOMS = EnumSet.of(
+            BookingStatus.PAYING, BookingStatus.CONFIRMED, BookingStatus.CHECKIN);
+
+    private final OutboxService outboxService;
+    private final HotelIndexService hotelIndexService;
+    private final PendingReindexRepository pendingReindexRepository;
+
+    @Value("${rag.reindex.debounce-ms:5000}")
+    private long debounceMs;
+
+    @Value("${rag.reindex.max-wait-ms:60000}")
+    private long maxWaitMs;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onHotelChanged(HotelChangedEvent event) {
+        publish(event.getHotelId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        if (HOLDS_ROOMS.contains(event.getPreviousStatus()) != HOLDS_ROOMS.contains(event.getNewStatus())) {
+            publish(event.getHotelId());
+        }
+    }
+
+    @KafkaListener(topics = TOPIC, groupId = "hotel-index-group")
+    public void onIndexEvent(String hotelId) {
+        Long id;
+        try {
+            id = Long.valueOf(hotelId);
+        } catch (NumberFormatException e) {
+            log.warn("Bỏ qua index event không hợp lệ: {}", hotelId);
+            return;
+        }
+        // a failure here propagates, so the offset is not committed and the message is redelivered
+        pendingReindexRepository.touch(id, new Date());
+    }
+
+    /**
+     * Re-indexes hotels that stayed quiet for the debounce window, or that have been waiting longer than the max wait.
+     */
+    @Scheduled(fixedDelayString = "${rag.reindex.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<PendingReindex> due = pendingReindexRepository.findDue(new Date(now - debounceMs), new Date(now - maxWaitMs));
+        for (PendingReindex entry : due) {
+            try {
+                hotelIndexService.reindexHotel(entry.getHotelId());
+                // a change that arrived during the re-index moved lastAt, and keeps the entry for another round
+                pendingReindexRepository.deleteIfUnchanged(entry.getHotelId(), entry.getLastAt());
+            } catch (Exception e) {
+                log.error("Re-index khách sạn {} thất bại, thử lại ở lần sau", entry.getHotelId(), e);
+                pendingReindexRepository.restart(entry.getHotelId(), new Date());
+            }
+        }
+    }
+
+    private void publish(Long hotelId) {
+        if (hotelId == null) {
+            return;
+        }
+        outboxService.enqueue(TOPIC, hotelId.toString(), hotelId.toString());
+    }
+}
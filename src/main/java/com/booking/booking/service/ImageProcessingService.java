@@ -0,0 +1,294 @@
+package com.booking.booking.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.NodeList;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.*;
+
+/**
+ * Decodes an uploaded photo once and derives the full-size, card and thumbnail renditions from it, each step
+ * downscaling the previous one. Runs on its own pool sized to the CPUs, so a burst of uploads cannot starve request
+ * threads or the upload workers waiting on Cloudinary.
+ * <p>
+ * The bundled ImageIO plugins read WebP but cannot write it, so renditions are written as JPEG (PNG when the image has
+ * transparency) and transcoded to WebP by Cloudinary on upload.
+ * <p>
+ * ImageIO ignores the EXIF orientation and the renditions carry no metadata, so the pixels are rotated upright while
+ * decoding; otherwise portrait phone photos would come out sideways.
+ */
+@Service
+@Slf4j(topic = "IMAGE-PROCESSING-SERVICE")
+public class ImageProcessingService {
+
+    public record Rendition(String name, Path file) {
+    }
+
+    private final ExecutorService executor;
+
+    @Value("${image.rendition.full-size:1920}")
+    private int fullSize;
+
+    @Value("${image.rendition.card-size:800}")
+    private int cardSize;
+
+    @Value("${image.rendition.thumbnail-size:320}")
+    private int thumbnailSize;
+
+    @Value("${image.rendition.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    public ImageProcessingService(@Value("${image.rendition.threads:0}") int threads,
+                                  @Value("${image.rendition.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread thread = new Thread(r, "image-rendition");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Renders {@code full}, {@code card} and {@code thumbnail} next to the source file, largest first. Returns
+     * {@code null} when the source is not an image ImageIO can read, and throws when a reader exists but decoding
+     * fails; the caller uploads the source unchanged in both cases.
+     */
+    public Rendition[] render(Path source) throws IOException {
+        try {
+            return executor.submit(() -> doRender(source)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while rendering " + source.getFileName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Failed to render " + source.getFileName(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Rendition[] doRender(Path source) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedImage image = decode(source, fullSize);
+        if (image == null) {
+            return null;
+        }
+        boolean alpha = image.getColorModel().hasAlpha();
+        String extension = alpha ? ".png" : ".jpg";
+        String base = source.getFileName().toString().replaceFirst("\\.[^.]+$", "");
+
+        BufferedImage full = downscale(image, fullSize, alpha);
+        BufferedImage card = downscale(full, cardSize, alpha);
+        BufferedImage thumbnail = downscale(card, thumbnailSize, alpha);
+
+        Rendition[] renditions = {
+                new Rendition("full", source.resolveSibling(base + "-full" + extension)),
+                new Rendition("card", source.resolveSibling(base + "-card" + extension)),
+                new Rendition("thumbnail", source.resolveSibling(base + "-thumbnail" + extension))
+        };
+        BufferedImage[] images = {full, card, thumbnail};
+        try {
+            for (int i = 0; i < renditions.length; i++) {
+                encode(images[i], alpha, renditions[i].file());
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Rendition rendition : renditions) {
+                Files.deleteIfExists(rendition.file());
+            }
+            throw e;
+        }
+        log.info("Rendered {} ({}x{}) in {}ms", source.getFileName(), image.getWidth(), image.getHeight(),
+                System.currentTimeMillis() - start);
+        return renditions;
+    }
+
+    /**
+     * Decodes with source subsampling, so a 24 MP photo is never materialised at full resolution when the largest
+     * rendition only needs a fraction of it, and applies the EXIF orientation.
+     */
+    private static BufferedImage decode(Path source, int targetSize) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, false);
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // keep at least twice the target resolution for the final downscale
+                int subsampling = Math.max(1, longEdge / (targetSize * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage image = reader.read(0, param);
+                return orient(image, exifOrientation(reader));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Reads the orientation tag from the EXIF (APP1) segment of a JPEG; 1 (upright) when there is none.
+     */
+    private static int exifOrientation(ImageReader reader) {
+        IIOMetadata metadata;
+        try {
+            metadata = reader.getImageMetadata(0);
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+        if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+            return 1;
+        }
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+        NodeList markers = root.getElementsByTagName("unknown");
+        for (int i = 0; i < markers.getLength(); i++) {
+            IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+            if ("225".equals(marker.getAttribute("MarkerTag")) && marker.getUserObject() instanceof byte[] data) {
+                int orientation = parseOrientation(data);
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static int parseOrientation(byte[] app1) {
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.ISO_8859_1);
+        if (app1.length < header.length + 8 || !Arrays.equals(app1, 0, header.length, header, 0, header.length)) {
+            return -1;
+        }
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(app1, header.length, app1.length - header.length).slice();
+            tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xFFFF;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                    int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                    return orientation >= 1 && orientation <= 8 ? orientation : -1;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // truncated or malformed EXIF: treat as upright
+        }
+        return -1;
+    }
+
+    /**
+     * Rotates and/or mirrors the image so that it displays upright for the given EXIF orientation (1-8).
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // matrices as (m00, m10, m01, m11, m02, m12): x' = m00 x + m01 y + m02, y' = m10 x + m11 y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean swap = orientation >= 5;
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    /**
+     * Halves the image with bilinear filtering until it is within twice the target, then scales to the target:
+     * close to area averaging in quality at a fraction of its cost.
+     */
+    private static BufferedImage downscale(BufferedImage image, int maxSize, boolean alpha) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxSize && isTarget(image, alpha)) {
+            return image;
+        }
+        double scale = Math.min(1.0, (double) maxSize / longEdge);
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (current.getWidth() <= targetWidth * 2) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    private static boolean isTarget(BufferedImage image, boolean alpha) {
+        return image.getType() == (alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    }
+
+    private void encode(BufferedImage image, boolean alpha, Path target) throws IOException {
+        if (alpha) {
+            ImageIO.write(image, "png", target.toFile());
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
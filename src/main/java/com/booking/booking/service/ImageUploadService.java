@@ -0,0 +1,271 @@
+package com.booking.booking.service;
+
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.model.Hotel;
+import com.booking.booking.model.ImageRenditions;
+import com.booking.booking.model.Room;
+import com.booking.booking.repository.HotelRepository;
+import com.booking.booking.repository.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Takes hotel and room images off the request path. An upload is written to a local staging directory and the entity
+ * gets a placeholder URL served from there; the transaction that saves the entity also writes an {@code upload-image}
+ * outbox message, and the consumers of that topic (as many as {@code image.upload.workers}) render the
+ * full-size, card and thumbnail variants, push them to Cloudinary and swap the placeholder for the full-size URL,
+ * recording the other two in {@code Room.imageRenditions} or {@code Hotel.cardImageUrl}/{@code thumbnailUrl}.
+ * <p>
+ * Messages are keyed by entity, so the images of one room are patched one after the other.
+ * <p>
+ * Staging is on local disk, so this only works on a single node: a message consumed on another instance finds no
+ * file and is dropped. Running several instances needs a shared {@code image.upload.staging-dir} (e.g. an NFS mount)
+ * or staging in object storage.
+ */
+@Service
+@Slf4j(topic = "IMAGE-UPLOAD-SERVICE")
+public class ImageUploadService {
+
+    public static final String TOPIC = "upload-image";
+
+    private static final Pattern TOKEN = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}(\\.[a-z0-9]{1,5})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    public enum Target {
+        HOTEL, ROOM
+    }
+
+    private final CloudinaryService cloudinaryService;
+    private final ImageProcessingService imageProcessingService;
+    private final OutboxService outboxService;
+    private final RoomRepository roomRepository;
+    private final HotelRepository hotelRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${image.upload.staging-dir:${java.io.tmpdir}/booking-images}")
+    private Path stagingDir;
+
+    @Value("${image.upload.staged-url-prefix:${BASE_URL:http://localhost:8080}/api/v1/images/staged/}")
+    private String stagedUrlPrefix;
+
+    @Value("${image.upload.staged-ttl-hours:24}")
+    private long stagedTtlHours;
+
+    public ImageUploadService(CloudinaryService cloudinaryService,
+                              ImageProcessingService imageProcessingService,
+                              OutboxService outboxService,
+                              RoomRepository roomRepository,
+                              HotelRepository hotelRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.cloudinaryService = cloudinaryService;
+        this.imageProcessingService = imageProcessingService;
+        this.outboxService = outboxService;
+        this.roomRepository = roomRepository;
+        this.hotelRepository = hotelRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Streams the upload to the staging directory and returns its placeholder URL.
+     */
+    public String stage(MultipartFile file) {
+        String token = UUID.randomUUID() + extensionOf(file.getOriginalFilename());
+        try {
+            Files.createDirectories(stagingDir);
+            file.transferTo(stagingDir.resolve(token));
+        } catch (IOException e) {
+            log.error("Error staging image {}", file.getOriginalFilename(), e);
+            throw new BadRequestException("Failed to upload image: " + file.getOriginalFilename());
+        }
+        return stagedUrlPrefix + token;
+    }
+
+    public List<String> stageAll(MultipartFile[] files) {
+        if (files == null || files.length == 0) {
+            return new ArrayList<>();
+        }
+        List<String> urls = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            if (file != null && !file.isEmpty()) {
+                urls.add(stage(file));
+            }
+        }
+        return urls;
+    }
+
+    public boolean isStaged(String url) {
+        return url != null && url.startsWith(stagedUrlPrefix);
+    }
+
+    /**
+     * Queues the staged URLs among {@code urls} for upload. Call it in the transaction that saved the entity, so the
+     * message is only published once the placeholders are committed.
+     */
+    public void schedule(Target target, Long entityId, Collection<String> urls) {
+        String key = target + ":" + entityId;
+        for (String url : urls) {
+            if (isStaged(url)) {
+                outboxService.enqueue(TOPIC, key, key + ":" + url.substring(stagedUrlPrefix.length()));
+            }
+        }
+    }
+
+    /**
+     * The staged file behind a placeholder token, or {@code null} when the token is malformed or already uploaded.
+     */
+    public Path resolveStaged(String token) {
+        if (!TOKEN.matcher(token).matches()) {
+            return null;
+        }
+        Path file = stagingDir.resolve(token);
+        return Files.isRegularFile(file) ? file : null;
+    }
+
+    @KafkaListener(topics = TOPIC, groupId = "image-upload-group", concurrency = "${image.upload.workers:4}")
+    public void onUpload(String message) throws IOException {
+        String[] parts = message.split(":", 3);
+        if (parts.length != 3 || !TOKEN.matcher(parts[2]).matches()) {
+            log.warn("Bỏ qua upload message không hợp lệ: {}", message);
+            return;
+        }
+        Target target = Target.valueOf(parts[0]);
+        Long entityId = Long.valueOf(parts[1]);
+        String token = parts[2];
+        Path file = stagingDir.resolve(token);
+        if (!Files.isRegularFile(file)) {
+            log.info("Ảnh {} đã được upload trước đó", token);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        ImageProcessingService.Rendition[] renditions;
+        try {
+            renditions = imageProcessingService.render(file);
+        } catch (IOException | RuntimeException e) {
+            // e.g. a CMYK JPEG or a truncated file: retrying cannot help, so upload the source as it is
+            log.warn("Không tạo được các bản thu nhỏ cho {}, upload ảnh gốc: {}", token, e.getMessage());
+            renditions = null;
+        }
+        List<String> publicIds = new ArrayList<>();
+        ImageRenditions urls;
+        try {
+            if (renditions == null) {
+                // not decodable here (e.g. HEIC, CMYK): Cloudinary still converts it, just without downsized variants
+                String url = upload(file, publicIds);
+                urls = new ImageRenditions(url, url, url);
+            } else {
+                urls = new ImageRenditions(upload(renditions[0].file(), publicIds),
+                        upload(renditions[1].file(), publicIds), upload(renditions[2].file(), publicIds));
+            }
+        } catch (RuntimeException e) {
+            deleteUploaded(publicIds);
+            throw e;
+        } finally {
+            if (renditions != null) {
+                for (ImageProcessingService.Rendition rendition : renditions) {
+                    Files.deleteIfExists(rendition.file());
+                }
+            }
+        }
+
+        Boolean patched = transactionTemplate.execute(status ->
+                replacePlaceholder(target, entityId, stagedUrlPrefix + token, urls));
+        if (!Boolean.TRUE.equals(patched)) {
+            // the image was removed, or the entity deleted, while the upload was queued
+            deleteUploaded(publicIds);
+        }
+        Files.deleteIfExists(file);
+        log.info("Uploaded {} for {} {} in {}ms", token, target, entityId, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Removes staged files whose upload never got queued, e.g. because the saving transaction rolled back. A file past
+     * the TTL is kept while an outbox message or an entity still refers to it, since its upload may just be lagging
+     * behind (relay backoff, consumer lag, a parked message waiting for a requeue).
+     */
+    @Scheduled(fixedDelayString = "${image.upload.sweep-interval-ms:3600000}")
+    public void sweepStaged() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofHours(stagedTtlHours));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingDir)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)
+                        && !isPending(file.getFileName().toString())) {
+                    log.warn("Xóa ảnh tạm quá hạn {}", file.getFileName());
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Không dọn được thư mục ảnh tạm {}", stagingDir, e);
+        }
+    }
+
+    private boolean isPending(String token) {
+        String url = stagedUrlPrefix + token;
+        return outboxService.hasMessage(TOPIC, ":" + token)
+                || roomRepository.existsByImageUrl(url)
+                || hotelRepository.existsByImageUrl(url);
+    }
+
+    private String upload(Path file, List<String> publicIds) {
+        Map<String, Object> data = cloudinaryService.upload(file);
+        publicIds.add((String) data.get("public_id"));
+        return (String) data.get("secure_url");
+    }
+
+    private void deleteUploaded(List<String> publicIds) {
+        publicIds.forEach(publicId -> outboxService.enqueue(CloudinaryService.DELETE_TOPIC, publicId, publicId));
+    }
+
+    private boolean replacePlaceholder(Target target, Long entityId, String placeholder, ImageRenditions urls) {
+        if (target == Target.ROOM) {
+            Optional<Room> room = roomRepository.findById(entityId);
+            if (room.isEmpty()) {
+                return false;
+            }
+            List<String> imageUrls = room.get().getListImageUrl();
+            int index = imageUrls.indexOf(placeholder);
+            if (index < 0) {
+                return false;
+            }
+            imageUrls.set(index, urls.getFullUrl());
+            room.get().getImageRenditions().add(urls);
+            return true;
+        }
+
+        Optional<Hotel> hotel = hotelRepository.findById(entityId);
+        if (hotel.isEmpty() || !placeholder.equals(hotel.get().getImageUrl())) {
+            return false;
+        }
+        hotel.get().setImageUrl(urls.getFullUrl());
+        hotel.get().setCardImageUrl(urls.getCardUrl());
+        hotel.get().setThumbnailUrl(urls.getThumbnailUrl());
+        return true;
+    }
+
+    private static String extensionOf(String fileName) {
+        if (fileName == null || fileName.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+}
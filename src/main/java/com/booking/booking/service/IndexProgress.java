@@ -0,0 +1,83 @@
+package com.booking.booking.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and cancellation flag of one index run, shared by the indexing thread, the embedding workers and whoever
+ * reports on the run.
+ */
+public class IndexProgress {
+
+    private final AtomicLong hotels = new AtomicLong();
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong embedded = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private volatile long totalHotels;
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void setTotalHotels(long totalHotels) {
+        this.totalHotels = totalHotels;
+    }
+
+    public long getTotalHotels() {
+        return totalHotels;
+    }
+
+    public long getHotels() {
+        return hotels.get();
+    }
+
+    public long getDocuments() {
+        return documents.get();
+    }
+
+    public long getEmbedded() {
+        return embedded.get();
+    }
+
+    public long getUnchanged() {
+        return unchanged.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getDeleted() {
+        return deleted.get();
+    }
+
+    void addHotels(long count) {
+        hotels.addAndGet(count);
+    }
+
+    void addDocuments(long count) {
+        documents.addAndGet(count);
+    }
+
+    void addEmbedded(long count) {
+        embedded.addAndGet(count);
+    }
+
+    void addUnchanged(long count) {
+        unchanged.addAndGet(count);
+    }
+
+    void addFailed(long count) {
+        failed.addAndGet(count);
+    }
+
+    void addDeleted(long count) {
+        deleted.addAndGet(count);
+    }
+}
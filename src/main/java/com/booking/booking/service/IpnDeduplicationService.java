@@ -0,0 +1,131 @@
+package com.booking.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers gateway transaction ids of processed payment callbacks in Redis ({@code ipn:{gateway}:{transactionId}}),
+ * so retried IPNs are acknowledged without verifying the signature again or touching the database.
+ * <p>
+ * If Redis is unavailable every callback is processed; the booking status check still makes that safe.
+ */
+@Service
+@Slf4j(topic = "IPN-DEDUPLICATION")
+public class IpnDeduplicationService {
+
+    public static final String MOMO = "momo";
+    public static final String VNPAY = "vnpay";
+
+    private static final String KEY_PREFIX = "ipn:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public IpnDeduplicationService(StringRedisTemplate redisTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${payment.ipn.dedup-ttl-hours:72}") long ttlHours) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+    }
+
+    /**
+     * Cheap pre-check before any other work; a hit is counted as a duplicate.
+     */
+    public boolean isDuplicate(String gateway, String transactionId) {
+        if (!isTracked(transactionId)) {
+            return false;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(key(gateway, transactionId)))) {
+                count(gateway, "duplicate");
+                log.info("Bỏ qua IPN trùng lặp {} {}", gateway, transactionId);
+                return true;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Không kiểm tra được IPN {} {} trên Redis: {}", gateway, transactionId, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Claims the transaction for processing with SETNX. Returns false when another delivery got there first. The
+     * claim is released if the surrounding transaction rolls back, so the gateway's next retry is processed.
+     */
+    public boolean claim(String gateway, String transactionId) {
+        if (!isTracked(transactionId)) {
+            return true;
+        }
+        String key = key(gateway, transactionId);
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()), ttl))) {
+                count(gateway, "duplicate");
+                log.info("IPN {} {} đang hoặc đã được xử lý", gateway, transactionId);
+                return false;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Không ghi được IPN {} {} lên Redis: {}", gateway, transactionId, e.getMessage());
+            return true;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(key);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Callback that passed deduplication but found the booking already settled, e.g. after the record expired.
+     */
+    public void recordReplay(String gateway) {
+        count(gateway, "replay");
+    }
+
+    public void recordProcessed(String gateway) {
+        count(gateway, "processed");
+    }
+
+    private void release(String key) {
+        try {
+            redisTemplate.delete(key);
+        } catch (DataAccessException e) {
+            log.warn("Không xóa được {} sau khi rollback: {}", key, e.getMessage());
+        }
+    }
+
+    private void count(String gateway, String outcome) {
+        counters.computeIfAbsent(gateway + ":" + outcome, k -> Counter.builder("payment.ipn.callbacks")
+                .tag("gateway", gateway)
+                .tag("outcome", outcome)
+                .register(meterRegistry)).increment();
+    }
+
+    // VNPay reports cancelled payments with vnp_TransactionNo=0, which is not unique
+    private static boolean isTracked(String transactionId) {
+        return transactionId != null && !transactionId.isBlank() && !"0".equals(transactionId);
+    }
+
+    private static String key(String gateway, String transactionId) {
+        return KEY_PREFIX + gateway + ":" + transactionId;
+    }
+}
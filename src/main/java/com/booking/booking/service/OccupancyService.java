@@ -0,0 +1,182 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.dto.response.HotelOccupancyResponse;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.repository.BookingRepository;
+import com.booking.booking.repository.HotelRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Expands occupied bookings into room-nights per hotel per day and derives occupancy, ADR and RevPAR.
+ */
+@Service
+@Slf4j(topic = "OCCUPANCY-SERVICE")
+public class OccupancyService {
+
+    private static final List<BookingStatus> OCCUPIED_STATUSES = List.of(
+            BookingStatus.CONFIRMED, BookingStatus.CHECKIN, BookingStatus.CHECKOUT, BookingStatus.COMPLETED);
+    private static final int PARTITION_SIZE = 64;
+    private static final long MAX_WINDOW_DAYS = 366;
+
+    private final BookingRepository bookingRepository;
+    private final HotelRepository hotelRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+
+    public OccupancyService(BookingRepository bookingRepository,
+                            HotelRepository hotelRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${analytics.occupancy.parallelism:4}") int parallelism) {
+        this.bookingRepository = bookingRepository;
+        this.hotelRepository = hotelRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * @param from     first night of the window (inclusive)
+     * @param to       last night of the window (inclusive)
+     * @param hotelIds hotels to compute, or {@code null} for every active hotel
+     */
+    @Cacheable(
+            value = "occupancyCache",
+            key = "#from + ':' + #to + ':' + #hotelIds",
+            condition = "#to.isBefore(T(java.time.LocalDate).now())"
+    )
+    public List<HotelOccupancyResponse> computeOccupancy(LocalDate from, LocalDate to, List<Long> hotelIds) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new BadRequestException("Invalid occupancy window");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_WINDOW_DAYS) {
+            throw new BadRequestException("Occupancy window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+
+        List<Object[]> inventory = hotelIds == null
+                ? hotelRepository.findRoomInventory()
+                : hotelIds.isEmpty() ? List.of() : hotelRepository.findRoomInventoryByIds(hotelIds);
+        if (inventory.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<List<Object[]>> partitions = new ArrayList<>();
+        for (int i = 0; i < inventory.size(); i += PARTITION_SIZE) {
+            partitions.add(inventory.subList(i, Math.min(i + PARTITION_SIZE, inventory.size())));
+        }
+
+        long start = System.currentTimeMillis();
+        List<HotelOccupancyResponse> result = pool.submit(() -> partitions.parallelStream()
+                        .map(partition -> computePartition(partition, from, to, (int) days))
+                        .flatMap(List::stream)
+                        // a plain ArrayList: the Redis cache records the list's class and cannot rebuild an immutable one
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .join();
+        log.info("Computed occupancy for {} hotels over {} days in {} ms", result.size(), days, System.currentTimeMillis() - start);
+        return result;
+    }
+
+    private List<HotelOccupancyResponse> computePartition(List<Object[]> hotels, LocalDate from, LocalDate to, int days) {
+        Map<Long, Integer> index = new HashMap<>();
+        List<Long> ids = new ArrayList<>(hotels.size());
+        for (Object[] hotel : hotels) {
+            index.put((Long) hotel[0], ids.size());
+            ids.add((Long) hotel[0]);
+        }
+
+        long[] sold = new long[hotels.size() * days];
+        double[] revenue = new double[hotels.size() * days];
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> stays = bookingRepository.streamStaysOverlapping(ids, OCCUPIED_STATUSES, from, to.plusDays(1))) {
+                stays.forEach(stay -> accumulate(stay, index, from, days, sold, revenue));
+            }
+        });
+
+        List<HotelOccupancyResponse> result = new ArrayList<>(hotels.size());
+        for (int h = 0; h < hotels.size(); h++) {
+            Object[] hotel = hotels.get(h);
+            long roomCount = ((Number) hotel[3]).longValue();
+            if (roomCount == 0) {
+                roomCount = ((Number) hotel[2]).longValue();
+            }
+
+            long soldNights = 0;
+            long occupiedNights = 0;
+            double hotelRevenue = 0;
+            int base = h * days;
+            for (int d = 0; d < days; d++) {
+                soldNights += sold[base + d];
+                occupiedNights += Math.min(sold[base + d], roomCount);
+                hotelRevenue += revenue[base + d];
+            }
+            long availableNights = roomCount * days;
+
+            result.add(HotelOccupancyResponse.builder()
+                    .hotelId((Long) hotel[0])
+                    .hotelName((String) hotel[1])
+                    .from(from)
+                    .to(to)
+                    .roomCount(roomCount)
+                    .roomNightsAvailable(availableNights)
+                    .roomNightsSold(soldNights)
+                    .occupancyRate(ratio(occupiedNights * 100.0, availableNights))
+                    .revenue(round(hotelRevenue))
+                    .adr(ratio(hotelRevenue, soldNights))
+                    .revPar(ratio(hotelRevenue, availableNights))
+                    .build());
+        }
+        return result;
+    }
+
+    private void accumulate(Object[] stay, Map<Long, Integer> index, LocalDate from, int days, long[] sold, double[] revenue) {
+        Integer h = index.get((Long) stay[0]);
+        LocalDate checkIn = (LocalDate) stay[1];
+        LocalDate checkOut = (LocalDate) stay[2];
+        int rooms = ((Number) stay[3]).intValue();
+        BigDecimal totalPrice = (BigDecimal) stay[4];
+
+        long nights = ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (h == null || nights <= 0 || rooms <= 0) {
+            return;
+        }
+
+        double revenuePerNight = totalPrice == null ? 0 : totalPrice.doubleValue() / nights;
+        int first = (int) Math.max(0, ChronoUnit.DAYS.between(from, checkIn));
+        int last = (int) Math.min(days, ChronoUnit.DAYS.between(from, checkOut));
+        int base = h * days;
+        for (int d = first; d < last; d++) {
+            sold[base + d] += rooms;
+            revenue[base + d] += revenuePerNight;
+        }
+    }
+
+    private static double ratio(double value, long total) {
+        return total > 0 ? round(value / total) : 0.0;
+    }
+
+    private static double round(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
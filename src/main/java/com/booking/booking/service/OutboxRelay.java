@@ -0,0 +1,174 @@
+package com.booking.booking.service;
+
+import com.booking.booking.model.OutboxEvent;
+import com.booking.booking.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes committed outbox rows to Kafka in batches and deletes them once the broker acknowledged them.
+ * <p>
+ * Rows are claimed with {@code FOR UPDATE SKIP LOCKED}, so several instances can relay side by side. Messages of one
+ * key are sent in id order; a key whose older message is held by another instance is left for the next poll, and a
+ * key whose message failed sends nothing more until that message went through. A message that keeps failing while
+ * others are published is parked (left in the table with its last error, no longer claimed) after
+ * {@code outbox.relay.max-attempts}.
+ */
+@Service
+@Slf4j(topic = "OUTBOX-RELAY")
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+
+    @Value("${outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = meterRegistry.counter("outbox.relay.messages", "outcome", "published");
+        this.failedCounter = meterRegistry.counter("outbox.relay.messages", "outcome", "failed");
+        this.parkedCounter = meterRegistry.counter("outbox.relay.messages", "outcome", "parked");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> relayBatch());
+        } while (claimed != null && claimed == batchSize);
+    }
+
+    /**
+     * @return how many rows were claimed, or 0 after a failure so the caller backs off until the next poll
+     */
+    private int relayBatch() {
+        List<OutboxEvent> claimed = outboxEventRepository.claimBatch(maxAttempts, batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<OutboxEvent> published = new ArrayList<>(claimed.size());
+        List<OutboxEvent> failed = new ArrayList<>();
+        Set<String> failedKeys = new HashSet<>();
+        boolean interrupted = false;
+        for (List<OutboxEvent> round : rounds(withoutBlockedKeys(claimed))) {
+            // a key that failed keeps its later messages in the table, so they cannot overtake the failed one
+            List<OutboxEvent> sending = round.stream()
+                    .filter(event -> event.getMessageKey() == null || !failedKeys.contains(event.getMessageKey()))
+                    .toList();
+            List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(sending.size());
+            for (OutboxEvent event : sending) {
+                futures.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+            }
+            for (int i = 0; i < sending.size(); i++) {
+                OutboxEvent event = sending.get(i);
+                try {
+                    futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    published.add(event);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    interrupted = true;
+                    break;
+                } catch (Exception e) {
+                    failed.add(event);
+                    if (event.getMessageKey() != null) {
+                        failedKeys.add(event.getMessageKey());
+                    }
+                    String message = String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                    event.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+                }
+            }
+            if (interrupted) {
+                break;
+            }
+        }
+
+        // when nothing got through the broker is down; only count attempts against messages that fail on their own
+        if (!published.isEmpty()) {
+            for (OutboxEvent event : failed) {
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= maxAttempts) {
+                    parkedCounter.increment();
+                    log.error("Outbox: bỏ message {} ({}, key {}) sau {} lần thử: {}", event.getId(), event.getTopic(),
+                            event.getMessageKey(), event.getAttempts(), event.getLastError());
+                }
+            }
+        }
+
+        outboxEventRepository.deleteAllInBatch(published);
+        publishedCounter.increment(published.size());
+        if (!failed.isEmpty() || interrupted) {
+            failedCounter.increment(failed.size());
+            log.warn("Outbox: {} message gửi thành công, {} lỗi, thử lại ở lần sau", published.size(), failed.size());
+            return 0;
+        }
+        log.debug("Outbox: đã gửi {} message", published.size());
+        return claimed.size();
+    }
+
+    /**
+     * Splits the batch into rounds holding at most one message per key, in id order; a round is only sent once the
+     * previous one was acknowledged. Most keys have a single message, so this is usually one round.
+     */
+    private static List<List<OutboxEvent>> rounds(List<OutboxEvent> batch) {
+        Map<String, Integer> seen = new HashMap<>();
+        List<List<OutboxEvent>> rounds = new ArrayList<>();
+        for (OutboxEvent event : batch) {
+            int round = event.getMessageKey() == null ? 0 : seen.merge(event.getMessageKey(), 1, Integer::sum) - 1;
+            while (rounds.size() <= round) {
+                rounds.add(new ArrayList<>());
+            }
+            rounds.get(round).add(event);
+        }
+        return rounds;
+    }
+
+    private List<OutboxEvent> withoutBlockedKeys(List<OutboxEvent> claimed) {
+        Set<String> keys = new HashSet<>();
+        List<Long> ids = new ArrayList<>(claimed.size());
+        for (OutboxEvent event : claimed) {
+            ids.add(event.getId());
+            if (event.getMessageKey() != null) {
+                keys.add(event.getMessageKey());
+            }
+        }
+        if (keys.isEmpty()) {
+            return claimed;
+        }
+        Set<String> blocked = new HashSet<>(outboxEventRepository.findKeysWithOlderMessages(
+                keys, claimed.get(claimed.size() - 1).getId(), ids, maxAttempts));
+        if (blocked.isEmpty()) {
+            return claimed;
+        }
+        return claimed.stream().filter(event -> !blocked.contains(event.getMessageKey())).toList();
+    }
+}
@@ -0,0 +1,38 @@
+package com.booking.booking.service;
+
+import com.booking.booking.model.OutboxEvent;
+import com.booking.booking.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Entry point of the transactional outbox: instead of sending to Kafka directly, callers record the message in
+ * {@code tbl_outbox} as part of their own transaction, and {@link OutboxRelay} publishes it once committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Transactional
+    public void enqueue(String topic, String key, String payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .messageKey(key)
+                .payload(payload)
+                .createdAt(new Date())
+                .build());
+    }
+
+    /**
+     * Whether a message on {@code topic} whose payload ends with {@code payloadSuffix} is still unpublished or parked.
+     */
+    @Transactional(readOnly = true)
+    public boolean hasMessage(String topic, String payloadSuffix) {
+        return outboxEventRepository.existsByTopicAndPayloadEndingWith(topic, payloadSuffix);
+    }
+}
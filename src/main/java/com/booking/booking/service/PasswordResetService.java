@@ -0,0 +1,92 @@
+package com.booking.booking.service;
+
+import com.booking.booking.exception.ResourceNotFoundException;
+import com.booking.booking.model.ForgotPassword;
+import com.booking.booking.model.User;
+import com.booking.booking.repository.ForgotPasswordRepository;
+import com.booking.booking.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Issues the one-time secrets of the password reset emails. {@link EmailService} calls it when the email is actually
+ * sent, so the secret never sits in {@code tbl_email_outbox} and its lifetime starts when the user can receive it.
+ * <p>
+ * The writes run in their own transaction: they are called from {@link EmailDispatcher}'s batch, which must still
+ * commit its bookkeeping when one of them fails.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordResetService {
+
+    private static final int PASSWORD_LENGTH = 12;
+    private static final long OTP_TTL_MS = 5 * 60 * 1000;
+
+    private final UserRepository userRepository;
+    private final ForgotPasswordRepository forgotPasswordRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * A random password for the email; nothing changes until {@link #applyTemporaryPassword} once it was delivered.
+     */
+    public String newTemporaryPassword() {
+        return generateStrongPassword(PASSWORD_LENGTH);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void applyTemporaryPassword(String username, String password) {
+        User user = findUser(username);
+        user.setPassword(passwordEncoder.encode(password));
+        userRepository.save(user);
+    }
+
+    /**
+     * Stores a fresh OTP valid for 5 minutes, replacing any earlier one of the user, and returns it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int issueOtp(String username) {
+        User user = findUser(username);
+        int otp = random.nextInt(900000) + 100000;
+        forgotPasswordRepository.deleteByUser(user);
+        forgotPasswordRepository.save(ForgotPassword.builder()
+                .otp(otp)
+                .expirationTime(new Date(System.currentTimeMillis() + OTP_TTL_MS))
+                .user(user)
+                .build());
+        return otp;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with username" + username));
+    }
+
+    private String generateStrongPassword(int length) {
+        String upper = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+        String lower = "abcdefghijklmnopqrstuvwxyz";
+        String digits = "0123456789";
+        String special = "!@#$%^&*()-_=+<>?";
+        String all = upper + lower + digits + special;
+        List<Character> chars = new ArrayList<>(length);
+        chars.add(upper.charAt(random.nextInt(upper.length())));
+        chars.add(lower.charAt(random.nextInt(lower.length())));
+        chars.add(digits.charAt(random.nextInt(digits.length())));
+        chars.add(special.charAt(random.nextInt(special.length())));
+        for (int i = 4; i < length; i++) {
+            chars.add(all.charAt(random.nextInt(all.length())));
+        }
+        Collections.shuffle(chars, random);
+        return chars.stream().map(String::valueOf).collect(Collectors.joining());
+    }
+}
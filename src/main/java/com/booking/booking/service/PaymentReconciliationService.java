@@ -0,0 +1,314 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.BookingStatus;
+import com.booking.booking.dto.response.ReconciliationReport;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Reconciles MoMo and VNPay settlement CSV files against {@code tbl_booking}.
+ * <p>
+ * The file is read line by line; rows are buffered 1000 at a time and joined against the bookings fetched with one
+ * {@code IN} query per buffer, so memory depends on the batch size rather than on the file. Recognised columns
+ * (case-insensitive): {@code bookingCode|orderId|vnp_TxnRef}, {@code amount|vnp_Amount} (the latter in VND x 100),
+ * {@code status|resultCode|vnp_ResponseCode} and optionally {@code transactionId|transId|vnp_TransactionNo}.
+ * Failed rows of a booking that the database or an earlier row shows as paid are counted as superseded attempts, not
+ * as status drift.
+ */
+@Service
+@Slf4j(topic = "PAYMENT-RECONCILIATION")
+public class PaymentReconciliationService {
+
+    public enum Gateway {
+        MOMO, VNPAY
+    }
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Set<String> SUCCESS_STATUSES = Set.of("0", "00", "SUCCESS", "SUCCEEDED", "PAID", "COMPLETED");
+    private static final Set<BookingStatus> PAID_STATUSES = EnumSet.of(
+            BookingStatus.CONFIRMED, BookingStatus.CHECKIN, BookingStatus.CHECKOUT, BookingStatus.COMPLETED);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BookingRepository bookingRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${payment.reconciliation.max-details:1000}")
+    private int maxDetails;
+
+    @Value("${payment.reconciliation.inbox-dir:}")
+    private String inboxDir;
+
+    public PaymentReconciliationService(BookingRepository bookingRepository, ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public ReconciliationReport reconcile(Gateway gateway, String source, InputStream input) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Run run = new Run();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new BadRequestException("Settlement file is empty");
+        }
+        Columns columns = Columns.of(parseLine(headerLine.replace("﻿", "")));
+
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.rows++;
+            Row row = columns.toRow(parseLine(line), lineNumber);
+            if (row == null) {
+                run.report("INVALID_ROW", lineNumber, null, null, null, null, null, null);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                join(batch, run);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            join(batch, run);
+        }
+
+        ReconciliationReport report = ReconciliationReport.builder()
+                .gateway(gateway.name())
+                .source(source)
+                .rows(run.rows)
+                .matched(run.matched)
+                .superseded(run.superseded)
+                .discrepancyCounts(run.counts)
+                .discrepancies(run.details)
+                .durationMs(System.currentTimeMillis() - startTime)
+                .build();
+        log.info("Đối soát {} ({}): {} dòng, {} khớp, sai lệch {} trong {}ms",
+                source, gateway, run.rows, run.matched, run.counts, report.getDurationMs());
+        return report;
+    }
+
+    /**
+     * Reconciles settlement files dropped into {@code payment.reconciliation.inbox-dir}. The gateway comes from the
+     * file name prefix ({@code momo*.csv}, {@code vnpay*.csv}); processed files and their JSON reports are moved to
+     * {@code processed/}.
+     */
+    @Scheduled(fixedDelayString = "${payment.reconciliation.scan-interval-ms:300000}")
+    public void scanInbox() {
+        if (inboxDir == null || inboxDir.isBlank()) {
+            return;
+        }
+        Path inbox = Path.of(inboxDir);
+        if (!Files.isDirectory(inbox)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox, "*.csv")) {
+            for (Path file : files) {
+                Gateway gateway = gatewayOf(file.getFileName().toString());
+                if (gateway == null) {
+                    log.warn("Không xác định được cổng thanh toán của file {}", file.getFileName());
+                    continue;
+                }
+                reconcileFile(gateway, file);
+            }
+        } catch (IOException e) {
+            log.error("Không đọc được thư mục đối soát {}", inbox, e);
+        }
+    }
+
+    private void reconcileFile(Gateway gateway, Path file) {
+        try {
+            ReconciliationReport report;
+            try (InputStream in = Files.newInputStream(file)) {
+                report = reconcile(gateway, file.getFileName().toString(), in);
+            }
+            Path processed = Files.createDirectories(file.resolveSibling("processed"));
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(processed.resolve(file.getFileName() + ".report.json").toFile(), report);
+            Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            log.error("Đối soát file {} thất bại", file, e);
+        }
+    }
+
+    private void join(List<Row> batch, Run run) {
+        Set<String> codes = new HashSet<>();
+        for (Row row : batch) {
+            codes.add(row.bookingCode());
+        }
+        Map<String, Object[]> bookings = new HashMap<>(codes.size() * 2);
+        for (Object[] booking : bookingRepository.findPaymentStateByBookingCodeIn(codes)) {
+            bookings.put((String) booking[0], booking);
+        }
+
+        for (Row row : batch) {
+            Object[] booking = bookings.get(row.bookingCode());
+            if (booking == null) {
+                run.report("MISSING_BOOKING", row.line(), row.bookingCode(), row.transactionId(),
+                        row.amount(), null, row.status(), null);
+                continue;
+            }
+            BigDecimal bookingAmount = (BigDecimal) booking[1];
+            BookingStatus bookingStatus = (BookingStatus) booking[2];
+            boolean success = SUCCESS_STATUSES.contains(row.status().toUpperCase());
+            if (!success && (PAID_STATUSES.contains(bookingStatus) || run.paidCodes.contains(row.bookingCode()))) {
+                // each MoMo attempt has its own orderId, so a declined attempt stays in the file after a later one paid
+                run.superseded++;
+                continue;
+            }
+            boolean matched = true;
+
+            if (success && !run.paidCodes.add(row.bookingCode())) {
+                run.report("DUPLICATE_PAYMENT", row.line(), row.bookingCode(), row.transactionId(),
+                        row.amount(), bookingAmount, row.status(), bookingStatus.name());
+                matched = false;
+            }
+            if (bookingAmount == null || row.amount().compareTo(bookingAmount) != 0) {
+                run.report("AMOUNT_MISMATCH", row.line(), row.bookingCode(), row.transactionId(),
+                        row.amount(), bookingAmount, row.status(), bookingStatus.name());
+                matched = false;
+            }
+            if (success != PAID_STATUSES.contains(bookingStatus)) {
+                run.report("STATUS_DRIFT", row.line(), row.bookingCode(), row.transactionId(),
+                        row.amount(), bookingAmount, row.status(), bookingStatus.name());
+                matched = false;
+            }
+            if (matched) {
+                run.matched++;
+            }
+        }
+    }
+
+    private static Gateway gatewayOf(String fileName) {
+        String lower = fileName.toLowerCase();
+        if (lower.startsWith("momo")) return Gateway.MOMO;
+        if (lower.startsWith("vnpay")) return Gateway.VNPAY;
+        return null;
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with {@code ""} escapes.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record Row(long line, String bookingCode, BigDecimal amount, String status, String transactionId) {
+    }
+
+    private record Columns(int bookingCode, int amount, boolean amountInCents, int status, int transactionId) {
+
+        static Columns of(List<String> header) {
+            int bookingCode = -1, amount = -1, status = -1, transactionId = -1;
+            boolean cents = false;
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).toLowerCase()) {
+                    case "bookingcode", "orderid", "vnp_txnref" -> bookingCode = i;
+                    case "amount" -> amount = i;
+                    case "vnp_amount" -> {
+                        amount = i;
+                        cents = true;
+                    }
+                    case "status", "resultcode", "vnp_responsecode" -> status = i;
+                    case "transactionid", "transid", "vnp_transactionno" -> transactionId = i;
+                    default -> {
+                    }
+                }
+            }
+            if (bookingCode < 0 || amount < 0 || status < 0) {
+                throw new BadRequestException("Settlement file needs bookingCode, amount and status columns");
+            }
+            return new Columns(bookingCode, amount, cents, status, transactionId);
+        }
+
+        Row toRow(List<String> fields, long line) {
+            if (fields.size() <= Math.max(bookingCode, Math.max(amount, status)) || fields.get(bookingCode).isEmpty()) {
+                return null;
+            }
+            BigDecimal value;
+            try {
+                value = new BigDecimal(fields.get(amount));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (amountInCents) {
+                value = value.divide(HUNDRED);
+            }
+            String txId = transactionId >= 0 && transactionId < fields.size() ? fields.get(transactionId) : null;
+            // MoMo reports the orderId sent by createQR, which carries a per-attempt suffix
+            return new Row(line, PaymentService.extractShortBookingCode(fields.get(bookingCode)), value,
+                    fields.get(status), txId);
+        }
+    }
+
+    private class Run {
+        private long rows;
+        private long matched;
+        private long superseded;
+        private final Map<String, Long> counts = new TreeMap<>();
+        private final List<ReconciliationReport.Discrepancy> details = new ArrayList<>();
+        private final Set<String> paidCodes = new HashSet<>();
+
+        private void report(String type, long line, String bookingCode, String transactionId, BigDecimal gatewayAmount,
+                            BigDecimal bookingAmount, String gatewayStatus, String bookingStatus) {
+            counts.merge(type, 1L, Long::sum);
+            if (details.size() < maxDetails) {
+                details.add(ReconciliationReport.Discrepancy.builder()
+                        .type(type)
+                        .line(line)
+                        .bookingCode(bookingCode)
+                        .transactionId(transactionId)
+                        .gatewayAmount(gatewayAmount)
+                        .bookingAmount(bookingAmount)
+                        .gatewayStatus(gatewayStatus)
+                        .bookingStatus(bookingStatus)
+                        .build());
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.booking.booking.service;
 
 import com.booking.booking.client.MomoApi;
+import com.booking.booking.client.PaymentGatewayExecutor;
 import com.booking.booking.common.BookingStatus;
 import com.booking.booking.config.VnpayConfig;
 import com.booking.booking.dto.PaymentDTO;
@@ -15,31 +16,30 @@ import com.booking.booking.util.VnpayUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.binary.Hex;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j(topic = "PAYMENT-SERVICE")
 public class PaymentService {
 
+    // MoMo rejects a reused orderId, so every createQR call sends "<bookingCode>-<epoch millis>"
+    private static final Pattern MOMO_ORDER_SUFFIX = Pattern.compile("-\\d{13}$");
+
     @Value("${momo.partner-code}")
     private String partnerCode;
     @Value("${momo.access-key}")
     private String accessKey;
-    @Value("${momo.secret-key}")
-    private String secretKey;
     @Value("${momo.return-url}")
     private String redirectUrl;
     @Value("${momo.ipn-url}")
@@ -48,23 +48,20 @@ public class PaymentService {
     private String requestType;
 
     private final MomoApi momoApi;
+    private final PaymentGatewayExecutor paymentGatewayExecutor;
+    private final PaymentSigner paymentSigner;
     private final BookingUtil bookingUtil;
     private final VnpayConfig vnPayConfig;
     private final EmailService emailService;
     private final BookingRepository bookingRepository;
+    private final IpnDeduplicationService ipnDeduplicationService;
 
     public CreateMomoResponse createQR(long bookingId) {
         Booking booking = findBookingOrThrow(bookingId);
-        booking.setStatus(BookingStatus.PAYING);
-        booking.setPaymentExpiredAt(Instant.now().plus(Duration.ofMinutes(15)));
-
-        bookingUtil.handleBookingWithStatus(booking, BookingStatus.PAYING);
-        bookingRepository.save(booking);
-
         BigDecimal price = booking.getTotalPrice();
 
         String orderId = booking.getBookingCode()
-                .replaceAll("[^a-zA-Z0-9_.:-]", "");
+                .replaceAll("[^a-zA-Z0-9_.:-]", "") + "-" + System.currentTimeMillis();
 
         String requestId = UUID.randomUUID().toString();
         String orderInfo = "Thanh toán hóa đơn: " + orderId;
@@ -76,7 +73,7 @@ public class PaymentService {
                 requestId, requestType
         );
 
-        String signature = hmacSHA256(secretKey, rawSignature);
+        String signature = paymentSigner.signMomo(rawSignature);
 
         CreateMomoRequest request = CreateMomoRequest.builder()
                 .partnerCode(partnerCode)
@@ -92,8 +89,20 @@ public class PaymentService {
                 .lang("vi")
                 .build();
 
-        CreateMomoResponse response = momoApi.createMomoQR(request);
+        CreateMomoResponse response = paymentGatewayExecutor.call(IpnDeduplicationService.MOMO, () -> momoApi.createMomoQR(request));
         log.info("Momo createQR response: {}", response);
+        if (response == null || response.getResultCode() == null || response.getResultCode() != 0) {
+            throw new BadRequestException("MoMo rejected the payment: " + (response == null ? "empty response" : response.getMessage()));
+        }
+
+        // only hold the rooms once MoMo has actually issued a payment link
+        BookingStatus previousStatus = booking.getStatus();
+        booking.setStatus(BookingStatus.PAYING);
+        booking.setPaymentExpiredAt(Instant.now().plus(Duration.ofMinutes(15)));
+
+        bookingUtil.handleBookingWithStatus(booking, BookingStatus.PAYING);
+        bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
 
         return response;
     }
@@ -101,6 +110,11 @@ public class PaymentService {
 
     @Transactional
     public void handleMomoCallback(Map<String, String> params) {
+        String transId = params.get("transId");
+        if (ipnDeduplicationService.isDuplicate(IpnDeduplicationService.MOMO, transId)) {
+            return;
+        }
+
         String raw = String.format(
                 "amount=%s&extraData=%s&message=%s&orderId=%s&orderInfo=%s&orderType=%s&"
                         + "partnerCode=%s&payType=%s&requestId=%s&responseTime=%s&resultCode=%s&transId=%s",
@@ -118,10 +132,12 @@ public class PaymentService {
                 params.get("transId")
         );
 
-        String sig = hmacSHA256(secretKey, raw);
-        if (!sig.equals(params.get("signature"))) {
+        if (!paymentSigner.verifyMomo(raw, params.get("signature"))) {
             throw new BadRequestException("Invalid MoMo signature");
         }
+        if (!ipnDeduplicationService.claim(IpnDeduplicationService.MOMO, transId)) {
+            return;
+        }
 
         String orderId = extractShortBookingCode(params.get("orderId"));
         Booking booking = findBookingByCodeOrThrow(orderId);
@@ -132,25 +148,29 @@ public class PaymentService {
         }
 
         boolean success = "0".equals(params.get("resultCode"));
-        confirmOrCancelBooking(booking, success);
+        confirmOrCancelBooking(booking, success, IpnDeduplicationService.MOMO);
     }
 
     public void handleMomoCallback(String orderId) {
         String shortCode = extractShortBookingCode(orderId);
         log.info("Booking code: {}", shortCode);
         Booking booking = bookingRepository.findByBookingCode(shortCode).orElseThrow(() -> new ResourceNotFoundException("Booking not found with code: " + shortCode));
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CONFIRMED);
         bookingUtil.handleBookingWithStatus(booking, BookingStatus.CONFIRMED);
         bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
     }
 
     public PaymentDTO.VNPayResponse createVnPayPayment(String bookingCode, String bankCode, HttpServletRequest req) {
         Booking booking = findBookingByCodeOrThrow(bookingCode);
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.PAYING);
         booking.setPaymentExpiredAt(Instant.now().plus(Duration.ofMinutes(15)));
 
         bookingUtil.handleBookingWithStatus(booking, BookingStatus.PAYING);
         bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
 
         BigDecimal price = booking.getTotalPrice().multiply(BigDecimal.valueOf(100));
 
@@ -164,10 +184,8 @@ public class PaymentService {
             vnpParamsMap.put("vnp_BankCode", bankCode);
         }
 
-        String queryUrl = VnpayUtil.getPaymentURL(vnpParamsMap, true);
-        String hashData = VnpayUtil.getPaymentURL(vnpParamsMap, false);
-        String vnpSecureHash = VnpayUtil.hmacSHA512(vnPayConfig.getSecretKey(), hashData);
-        queryUrl += "&vnp_SecureHash=" + vnpSecureHash;
+        VnpayUtil.CanonicalQuery query = VnpayUtil.canonicalQuery(vnpParamsMap);
+        String queryUrl = query.query() + "&vnp_SecureHash=" + paymentSigner.signVnpay(query.hashData());
 
         String paymentUrl = vnPayConfig.getVnp_PayUrl() + "?" + queryUrl;
 
@@ -183,15 +201,22 @@ public class PaymentService {
         String secureHash = params.get("vnp_SecureHash");
         if (secureHash == null) throw new BadRequestException("Missing vnp_SecureHash");
 
+        String transactionNo = params.get("vnp_TransactionNo");
+        if (ipnDeduplicationService.isDuplicate(IpnDeduplicationService.VNPAY, transactionNo)) {
+            return;
+        }
+
         Map<String, String> signed = new HashMap<>(params);
         signed.remove("vnp_SecureHash");
         signed.remove("vnp_SecureHashType");
 
-        String hashData = VnpayUtil.getPaymentURL(signed, false);
-        String calc = VnpayUtil.hmacSHA512(vnPayConfig.getSecretKey(), hashData);
-        if (!calc.equalsIgnoreCase(secureHash)) {
+        String hashData = VnpayUtil.canonicalQuery(signed).hashData();
+        if (!paymentSigner.verifyVnpay(hashData, secureHash)) {
             throw new BadRequestException("Invalid VNPay signature");
         }
+        if (!ipnDeduplicationService.claim(IpnDeduplicationService.VNPAY, transactionNo)) {
+            return;
+        }
 
         String bookingCode = params.get("vnp_TxnRef");
         Booking booking = findBookingByCodeOrThrow(bookingCode);
@@ -203,12 +228,16 @@ public class PaymentService {
         }
 
         boolean success = "00".equals(params.get("vnp_ResponseCode"));
-        confirmOrCancelBooking(booking, success);
+        confirmOrCancelBooking(booking, success, IpnDeduplicationService.VNPAY);
     }
 
-    private void confirmOrCancelBooking(Booking booking, boolean success) {
-        if (booking.getStatus() == BookingStatus.CONFIRMED) return;
+    private void confirmOrCancelBooking(Booking booking, boolean success, String gateway) {
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            ipnDeduplicationService.recordReplay(gateway);
+            return;
+        }
 
+        BookingStatus previousStatus = booking.getStatus();
         if (success) {
             booking.setStatus(BookingStatus.CONFIRMED);
 //            emailService.sendPaymentSuccessEmail(booking);
@@ -217,6 +246,8 @@ public class PaymentService {
             bookingUtil.handleBookingWithStatus(booking, BookingStatus.CANCELLED);
         }
         bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
+        ipnDeduplicationService.recordProcessed(gateway);
     }
 
     private Booking findBookingOrThrow(long bookingId) {
@@ -229,23 +260,11 @@ public class PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with code: " + bookingCode));
     }
 
-    private String extractShortBookingCode(String orderId) {
-        if (orderId != null && orderId.contains("-")) {
-            return orderId.substring(0, orderId.lastIndexOf("-"));
-        }
-        return orderId;
-    }
-
-    private String hmacSHA256(String key, String data) {
-        try {
-            Mac hmac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            hmac.init(secretKeySpec);
-            byte[] bytes = hmac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            return Hex.encodeHexString(bytes);
-        } catch (Exception e) {
-            throw new RuntimeException("Error while generating HMAC SHA256 signature", e);
-        }
+    /**
+     * Booking code behind a MoMo orderId; ids without the per-attempt suffix are booking codes already.
+     */
+    public static String extractShortBookingCode(String orderId) {
+        return orderId == null ? null : MOMO_ORDER_SUFFIX.matcher(orderId).replaceFirst("");
     }
 
     @Scheduled(fixedRate = 60_000)
@@ -260,6 +279,7 @@ public class PaymentService {
 
         bookings.forEach(booking -> {
             booking.setStatus(BookingStatus.PENDING);
+            bookingUtil.publishStatusChanged(booking, BookingStatus.PAYING);
             log.info("Booking ID {} has expired payment. Resetting status to PENDING", booking.getId());
         });
 
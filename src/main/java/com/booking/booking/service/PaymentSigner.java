@@ -0,0 +1,37 @@
+package com.booking.booking.service;
+
+import com.booking.booking.config.VnpayConfig;
+import com.booking.booking.util.HmacSigner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-keyed signers for the payment gateways: HMAC-SHA256 for MoMo, HMAC-SHA512 for VNPay.
+ */
+@Component
+public class PaymentSigner {
+
+    private final HmacSigner momo;
+    private final HmacSigner vnpay;
+
+    public PaymentSigner(@Value("${momo.secret-key}") String momoSecretKey, VnpayConfig vnpayConfig) {
+        this.momo = new HmacSigner("HmacSHA256", momoSecretKey);
+        this.vnpay = new HmacSigner("HmacSHA512", vnpayConfig.getSecretKey());
+    }
+
+    public String signMomo(String data) {
+        return momo.sign(data);
+    }
+
+    public boolean verifyMomo(String data, String signature) {
+        return momo.verify(data, signature);
+    }
+
+    public String signVnpay(String data) {
+        return vnpay.sign(data);
+    }
+
+    public boolean verifyVnpay(String data, String signature) {
+        return vnpay.verify(data, signature);
+    }
+}
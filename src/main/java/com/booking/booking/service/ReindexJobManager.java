@@ -0,0 +1,170 @@
+package com.booking.booking.service;
+
+import com.booking.booking.common.ReindexJobStatus;
+import com.booking.booking.dto.response.ReindexJobResponse;
+import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.exception.DuplicateResourceException;
+import com.booking.booking.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs full reindexing as a background job. Only one job runs at a time; it gets its own thread so it never holds a
+ * slot of the shared {@code taskExecutor} that its embedding batches run on.
+ */
+@Service
+@Slf4j(topic = "REINDEX-JOB-MANAGER")
+public class ReindexJobManager {
+
+    private static final int HISTORY_SIZE = 20;
+
+    private final HotelIndexService hotelIndexService;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "reindex-job"));
+    private final AtomicReference<ReindexJob> running = new AtomicReference<>();
+    private final Map<String, ReindexJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ReindexJob> eldest) {
+            return size() > HISTORY_SIZE;
+        }
+    });
+
+    public ReindexJobManager(HotelIndexService hotelIndexService) {
+        this.hotelIndexService = hotelIndexService;
+    }
+
+    public ReindexJobResponse start(boolean force) {
+        ReindexJob job = new ReindexJob(UUID.randomUUID().toString(), force);
+        if (!running.compareAndSet(null, job)) {
+            throw new DuplicateResourceException("Reindex job " + running.get().id + " is already running");
+        }
+        jobs.put(job.id, job);
+        try {
+            runner.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            job.finish(ReindexJobStatus.FAILED, e.getMessage());
+            running.compareAndSet(job, null);
+            throw e;
+        }
+        log.info("Bắt đầu job reindex {} (force={})", job.id, force);
+        return job.toResponse();
+    }
+
+    public ReindexJobResponse getJob(String jobId) {
+        return find(jobId).toResponse();
+    }
+
+    /**
+     * @return the running job, or the most recent one when nothing is running
+     */
+    public ReindexJobResponse getLatest() {
+        ReindexJob job = running.get();
+        if (job == null) {
+            synchronized (jobs) {
+                for (ReindexJob candidate : jobs.values()) {
+                    job = candidate;
+                }
+            }
+        }
+        if (job == null) {
+            throw new ResourceNotFoundException("No reindex job has been started");
+        }
+        return job.toResponse();
+    }
+
+    public ReindexJobResponse cancel(String jobId) {
+        ReindexJob job = find(jobId);
+        if (job.status != ReindexJobStatus.RUNNING) {
+            throw new BadRequestException("Reindex job " + jobId + " is already " + job.status);
+        }
+        job.progress.cancel();
+        log.info("Yêu cầu hủy job reindex {}", jobId);
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ReindexJob job = running.get();
+        if (job != null) {
+            job.progress.cancel();
+        }
+        runner.shutdown();
+    }
+
+    private void run(ReindexJob job) {
+        try {
+            if (job.force) {
+                hotelIndexService.rebuildIndex(job.progress);
+            } else {
+                hotelIndexService.indexAllHotels(job.progress);
+            }
+            job.finish(job.progress.isCancelled() ? ReindexJobStatus.CANCELLED : ReindexJobStatus.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Job reindex {} thất bại", job.id, e);
+            job.finish(ReindexJobStatus.FAILED, e.getMessage());
+        } finally {
+            running.compareAndSet(job, null);
+        }
+        log.info("Job reindex {} kết thúc: {}", job.id, job.status);
+    }
+
+    private ReindexJob find(String jobId) {
+        ReindexJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Reindex job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private static class ReindexJob {
+        private final String id;
+        private final boolean force;
+        private final IndexProgress progress = new IndexProgress();
+        private final Instant startedAt = Instant.now();
+        private volatile ReindexJobStatus status = ReindexJobStatus.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private ReindexJob(String id, boolean force) {
+            this.id = id;
+            this.force = force;
+        }
+
+        private void finish(ReindexJobStatus status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private ReindexJobResponse toResponse() {
+            long total = progress.getTotalHotels();
+            double percent = status == ReindexJobStatus.COMPLETED ? 100
+                    : total == 0 ? 0 : Math.min(100, progress.getHotels() * 100.0 / total);
+            return ReindexJobResponse.builder()
+                    .jobId(id)
+                    .status(status)
+                    .force(force)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .totalHotels(total)
+                    .processedHotels(progress.getHotels())
+                    .percent(Math.round(percent * 10) / 10.0)
+                    .documents(progress.getDocuments())
+                    .embedded(progress.getEmbedded())
+                    .unchanged(progress.getUnchanged())
+                    .failed(progress.getFailed())
+                    .deleted(progress.getDeleted())
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.booking.booking.service;
+
+import com.booking.booking.event.HotelChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache for chat answers: exact normalized question text first, then cosine similarity against the
+ * embeddings of recently answered questions. Both tiers only match answers computed under the same extracted search
+ * constraints, since "3 sao" and "5 sao" questions embed almost identically. Entries remember which hotels they return
+ * so a hotel change drops them.
+ */
+@Service
+@Slf4j(topic = "SEMANTIC-ANSWER-CACHE")
+public class SemanticAnswerCache {
+
+    private final EmbeddingModel embeddingModel;
+    private final Cache<ExactKey, CachedAnswer> exact;
+    private final CachedAnswer[] recent;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final double threshold;
+    private final long ttlMillis;
+    private int next;
+
+    private final Counter exactHits;
+    private final Counter semanticHits;
+    private final Counter misses;
+
+    public SemanticAnswerCache(@Qualifier("queryEmbeddingModel") EmbeddingModel embeddingModel,
+                               MeterRegistry meterRegistry,
+                               @Value("${rag.answer-cache.capacity:512}") int capacity,
+                               @Value("${rag.answer-cache.similarity-threshold:0.92}") double threshold,
+                               @Value("${rag.answer-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.embeddingModel = embeddingModel;
+        this.threshold = threshold;
+        this.ttlMillis = Duration.ofMinutes(ttlMinutes).toMillis();
+        this.recent = new CachedAnswer[capacity];
+        this.exact = Caffeine.newBuilder()
+                .maximumSize(capacity * 4L)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+        this.exactHits = meterRegistry.counter("rag.answer.cache", "result", "exact");
+        this.semanticHits = meterRegistry.counter("rag.answer.cache", "result", "semantic");
+        this.misses = meterRegistry.counter("rag.answer.cache", "result", "miss");
+    }
+
+    /**
+     * Returns the cached answer for a question or computes and caches it. Empty answers are not cached. The question
+     * is embedded exactly as the loader will search it, so the vector store reuses the embedding. Callers get their own
+     * copies of the suggestions, which are mutable.
+     */
+    public List<HotelRAGService.HotelSuggestionDTO> get(String question,
+                                                        HotelRAGService.SearchConstraints constraints,
+                                                        Supplier<List<HotelRAGService.HotelSuggestionDTO>> loader) {
+        ExactKey key = new ExactKey(normalize(question), constraints);
+        CachedAnswer hit = exact.getIfPresent(key);
+        if (hit != null) {
+            exactHits.increment();
+            return copyOf(hit.answer());
+        }
+
+        float[] embedding = embed(question);
+        if (embedding != null) {
+            hit = findSimilar(embedding, constraints);
+            if (hit != null) {
+                semanticHits.increment();
+                log.debug("Semantic hit: '{}' ~ '{}'", key.question(), hit.question());
+                exact.put(key, hit);
+                return copyOf(hit.answer());
+            }
+        }
+
+        misses.increment();
+        List<HotelRAGService.HotelSuggestionDTO> answer = loader.get();
+        if (answer != null && !answer.isEmpty()) {
+            Set<Long> hotelIds = answer.stream()
+                    .map(HotelRAGService.HotelSuggestionDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toUnmodifiableSet());
+            CachedAnswer entry = new CachedAnswer(key.question(), constraints, embedding, copyOf(answer), hotelIds,
+                    System.currentTimeMillis());
+            exact.put(key, entry);
+            if (embedding != null) {
+                remember(entry);
+            }
+        }
+        return answer;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHotelChanged(HotelChangedEvent event) {
+        evictHotel(event.getHotelId());
+    }
+
+    public void evictHotel(Long hotelId) {
+        exact.asMap().values().removeIf(entry -> entry.hotelIds().contains(hotelId));
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < recent.length; i++) {
+                if (recent[i] != null && recent[i].hotelIds().contains(hotelId)) {
+                    recent[i] = null;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        exact.invalidateAll();
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(recent, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Đã xóa cache câu trả lời");
+    }
+
+    private CachedAnswer findSimilar(float[] embedding, HotelRAGService.SearchConstraints constraints) {
+        long now = System.currentTimeMillis();
+        CachedAnswer best = null;
+        double bestScore = threshold;
+        lock.readLock().lock();
+        try {
+            for (CachedAnswer entry : recent) {
+                if (entry == null || entry.embedding().length != embedding.length || now - entry.createdAt() > ttlMillis
+                        || !entry.constraints().equals(constraints)) {
+                    continue;
+                }
+                double score = dot(embedding, entry.embedding());
+                if (score >= bestScore) {
+                    bestScore = score;
+                    best = entry;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best;
+    }
+
+    private void remember(CachedAnswer entry) {
+        lock.writeLock().lock();
+        try {
+            recent[next] = entry;
+            next = (next + 1) % recent.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Embeds and L2-normalizes the question, so similarity is a plain dot product.
+     */
+    private float[] embed(String text) {
+        try {
+            float[] vector = embeddingModel.embed(text);
+            double norm = 0;
+            for (float v : vector) {
+                norm += v * v;
+            }
+            if (norm == 0) {
+                return null;
+            }
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= inv;
+            }
+            return vector;
+        } catch (Exception e) {
+            log.warn("Không embed được câu hỏi, bỏ qua semantic cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<HotelRAGService.HotelSuggestionDTO> copyOf(List<HotelRAGService.HotelSuggestionDTO> answer) {
+        return answer.stream().map(suggestion -> suggestion.toBuilder().build()).toList();
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    static String normalize(String question) {
+        String text = Normalizer.normalize(question, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        return text.replaceAll("[\\p{Punct}&&[^.]]+", " ").replaceAll("\\s+", " ").trim();
+    }
+
+    private record ExactKey(String question, HotelRAGService.SearchConstraints constraints) {
+    }
+
+    private record CachedAnswer(String question, HotelRAGService.SearchConstraints constraints, float[] embedding,
+                                List<HotelRAGService.HotelSuggestionDTO> answer, Set<Long> hotelIds, long createdAt) {
+    }
+}
@@ -3,9 +3,9 @@ package com.booking.booking.service.impl;
 import com.booking.booking.dto.request.LoginRequest;
 import com.booking.booking.dto.request.RegisterRequest;
 import com.booking.booking.dto.request.SignInRequest;
-import com.booking.booking.dto.request.VerifyAccountInfo;
 import com.booking.booking.dto.response.LoginResponse;
 import com.booking.booking.dto.response.TokenResponse;
+import com.booking.booking.event.UserRegisteredEvent;
 import com.booking.booking.exception.*;
 import com.booking.booking.mapper.UserMapper;
 import com.booking.booking.model.User;
@@ -13,11 +13,10 @@ import com.booking.booking.repository.UserRepository;
 import com.booking.booking.service.EmailService;
 import com.booking.booking.service.interfaces.AuthenticationService;
 import com.booking.booking.service.interfaces.JwtService;
-import com.google.gson.Gson;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -37,13 +36,12 @@ import static com.booking.booking.common.TokenType.REFRESH_TOKEN;
 @Slf4j(topic = "AUTHENTICATION-SERVICE")
 public class AuthenticationServiceImpl implements AuthenticationService {
 
-    private final Gson gson;
     private final UserMapper userMapper;
     private final JwtService jwtService;
     private final EmailService emailService;
     private final UserRepository userRepository;
     private final AuthenticationManager authenticationManager;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public LoginResponse login(LoginRequest loginRequest) {
@@ -95,13 +93,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         }
 
         User savedUser = userRepository.save(userMapper.toUserEntity(registerRequest));
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getId()));
 
         emailService.sendVerificationEmail(savedUser.getEmail(), savedUser.getUsername());
-
-        VerifyAccountInfo info = new VerifyAccountInfo(savedUser.getEmail(), savedUser.getUsername());
-        String message = gson.toJson(info);
-
-        kafkaTemplate.send("verify-account-topic", message);
     }
 
 
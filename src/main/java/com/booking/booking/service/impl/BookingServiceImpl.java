@@ -97,6 +97,7 @@ public class BookingServiceImpl implements BookingService {
                 .build();
 
         Booking saved = bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(saved, null);
 
         if (voucher != null) {
             voucher.setQuantity(voucher.getQuantity() - 1);
@@ -416,8 +417,10 @@ public class BookingServiceImpl implements BookingService {
             throw new AccessDeniedException("You are not allowed to cancel a booking that is not yours");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
     }
 
     @Override
@@ -475,9 +478,11 @@ public class BookingServiceImpl implements BookingService {
     public void updateStatusBooking(Long id, String Status) {
         Booking booking = bookingRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.setStatus(BookingStatus.valueOf(Status.toUpperCase()));
         bookingUtil.handleBookingWithStatus(booking, BookingStatus.valueOf(Status.toUpperCase()));
         bookingRepository.save(booking);
+        bookingUtil.publishStatusChanged(booking, previousStatus);
     }
 
     @Scheduled(fixedRate = 300000)
@@ -493,6 +498,7 @@ public class BookingServiceImpl implements BookingService {
 
             for (Booking booking : expiredBookings) {
                 booking.setStatus(BookingStatus.EXPIRED);
+                bookingUtil.publishStatusChanged(booking, BookingStatus.PENDING);
                 log.info("Expired booking: {} for guest: {}", booking.getBookingCode(),
                         booking.getGuest().getUsername());
             }
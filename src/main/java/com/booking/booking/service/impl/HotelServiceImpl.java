@@ -7,7 +7,7 @@ import com.booking.booking.dto.RoomSummaryDTO;
 import com.booking.booking.dto.request.HotelSearchRequest;
 import com.booking.booking.dto.response.PageResponse;
 import com.booking.booking.dto.response.UserResponse;
-import com.booking.booking.exception.BadRequestException;
+import com.booking.booking.event.HotelChangedEvent;
 import com.booking.booking.exception.InvalidHotelIdsException;
 import com.booking.booking.exception.ResourceNotFoundException;
 import com.booking.booking.mapper.HotelMapper;
@@ -20,12 +20,14 @@ import com.booking.booking.repository.RoomRepository;
 import com.booking.booking.repository.UserRepository;
 import com.booking.booking.repository.VoucherRepository;
 import com.booking.booking.service.CloudinaryService;
+import com.booking.booking.service.ImageUploadService;
+import com.booking.booking.service.OutboxService;
 import com.booking.booking.service.interfaces.HotelService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -45,10 +47,11 @@ public class HotelServiceImpl implements HotelService {
     private final HotelMapper hotelMapper;
     private final RoomRepository roomRepository;
     private final HotelRepository hotelRepository;
-    private final CloudinaryService cloudinaryService;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ImageUploadService imageUploadService;
+    private final OutboxService outboxService;
     private final UserRepository userRepository;
     private final VoucherRepository voucherRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -115,7 +118,8 @@ public class HotelServiceImpl implements HotelService {
                             .hotelId(hotel.getId())
                             .name(hotel.getName())
                             .address(hotel.getAddressDetail() + ", " + hotel.getDistrict() + ", " + hotel.getProvince())
-                            .imageUrl(hotel.getImageUrl())
+                            .imageUrl(hotel.getCardImageUrl() != null ? hotel.getCardImageUrl() : hotel.getImageUrl())
+                            .thumbnailUrl(hotel.getThumbnailUrl() != null ? hotel.getThumbnailUrl() : hotel.getImageUrl())
                             .starRating(hotel.getStarRating())
                             .availableRooms(
                                     availableRooms.stream().map(this::mapRoom).toList()
@@ -131,7 +135,8 @@ public class HotelServiceImpl implements HotelService {
                 .typeRoom(room.getTypeRoom())
                 .capacity(room.getCapacity())
                 .pricePerNight(room.getPricePerNight())
-                .imageUrls(room.getListImageUrl())
+                .imageUrls(room.getCardImageUrls())
+                .thumbnailUrls(room.getThumbnailUrls())
                 .build();
     }
 
@@ -141,19 +146,13 @@ public class HotelServiceImpl implements HotelService {
         Hotel hotel = hotelMapper.toHotel(hotelDTO);
 
         if (imageHotel != null && !imageHotel.isEmpty()) {
-            try {
-                Map<String, Object> data = this.cloudinaryService.upload(imageHotel);
-                String imageUrl = (String) data.get("secure_url");
-                log.info("Uploaded image URL: {}", imageUrl);
-                hotel.setImageUrl(imageUrl);
-            } catch (Exception e) {
-                log.error("Error uploading hotel image", e);
-                throw new BadRequestException(
-                        "Failed to upload image: " + imageHotel.getOriginalFilename());
-            }
+            hotel.setImageUrl(imageUploadService.stage(imageHotel));
         }
 
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        scheduleImageUpload(saved);
+        publishHotelChanged(List.of(saved.getId()));
+        return saved;
     }
 
     @Override
@@ -161,28 +160,22 @@ public class HotelServiceImpl implements HotelService {
         Hotel hotel = hotelRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found"));
 
-        if (imageHotel != null && !imageHotel.isEmpty()) {
-            try {
-                String oldImageUrl = hotel.getImageUrl();
-                if (oldImageUrl != null && !oldImageUrl.isBlank()) {
-                    String publicId = extractPublicIdFromUrl(oldImageUrl);
-                    cloudinaryService.delete(publicId);
-                }
-
-                Map<String, Object> data = cloudinaryService.upload(imageHotel);
-                String imageUrl = (String) data.get("secure_url");
-                log.info("Uploaded new hotel image URL: {}", imageUrl);
-                hotel.setImageUrl(imageUrl);
-            } catch (Exception e) {
-                log.error("Error uploading image", e);
-                throw new BadRequestException(
-                        "Failed to upload image: " + imageHotel.getOriginalFilename());
-            }
+        boolean newImage = imageHotel != null && !imageHotel.isEmpty();
+        if (newImage) {
+            deleteHotelImages(hotel);
+            hotel.setImageUrl(imageUploadService.stage(imageHotel));
+            hotel.setCardImageUrl(null);
+            hotel.setThumbnailUrl(null);
         }
 
         hotelMapper.updateHotelFromDTO(hotel, updatedHotel);
 
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        if (newImage) {
+            scheduleImageUpload(saved);
+        }
+        publishHotelChanged(List.of(id));
+        return saved;
     }
 
     private String extractPublicIdFromUrl(String imageUrl) {
@@ -204,6 +197,7 @@ public class HotelServiceImpl implements HotelService {
         hotel.setDeleted(true);
         hotel.setDeletedAt(new Date());
         hotelRepository.save(hotel);
+        publishHotelChanged(List.of(id));
     }
 
     @Override
@@ -216,6 +210,7 @@ public class HotelServiceImpl implements HotelService {
             throw new InvalidHotelIdsException("Some hotel IDs are invalid or already deleted", invalid);
         }
         hotelRepository.softDeleteByIds(ids, new Date());
+        publishHotelChanged(ids);
     }
 
     @Override
@@ -224,6 +219,7 @@ public class HotelServiceImpl implements HotelService {
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found"));
         hotel.setDeleted(false);
         hotelRepository.save(hotel);
+        publishHotelChanged(List.of(id));
     }
 
     @Override
@@ -236,6 +232,7 @@ public class HotelServiceImpl implements HotelService {
             throw new InvalidHotelIdsException("Some hotel IDs are invalid or not deleted", invalid);
         }
         hotelRepository.restoreByIds(ids);
+        publishHotelChanged(ids);
     }
 
     @Override
@@ -243,18 +240,13 @@ public class HotelServiceImpl implements HotelService {
         Hotel hotel = hotelRepository.findByIdAndIsDeletedFalse(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found"));
 
-        deleteImage(hotel.getImageUrl());
-
-        roomRepository.findByHotelIdAndIsDeletedFalse(id).forEach(room -> {
-            List<String> imageUrls = room.getListImageUrl();
-            if (imageUrls != null) {
-                imageUrls.forEach(this::deleteImage);
-            }
-        });
+        deleteHotelImages(hotel);
+        roomRepository.findByHotelIdAndIsDeletedFalse(id).forEach(this::deleteRoomImages);
 
         voucherRepository.deleteAllByHotelId(id);
 
         hotelRepository.delete(hotel);
+        publishHotelChanged(List.of(id));
     }
 
     @Transactional
@@ -274,29 +266,51 @@ public class HotelServiceImpl implements HotelService {
         voucherRepository.deleteAllByHotelIds(ids);
 
         hotels.forEach(hotel -> {
-            deleteImage(hotel.getImageUrl());
-
-            List<Room> rooms = roomRepository.findByHotelIdAndIsDeletedFalse(hotel.getId());
-            rooms.forEach(room -> {
-                List<String> imageUrls = room.getListImageUrl();
-                if (imageUrls != null) {
-                    imageUrls.forEach(this::deleteImage);
-                }
-            });
+            deleteHotelImages(hotel);
+            roomRepository.findByHotelIdAndIsDeletedFalse(hotel.getId()).forEach(this::deleteRoomImages);
 
             hotelRepository.delete(hotel);
         });
+        publishHotelChanged(ids);
+    }
+
+    private void publishHotelChanged(List<Long> hotelIds) {
+        hotelIds.forEach(hotelId -> eventPublisher.publishEvent(new HotelChangedEvent(hotelId)));
+    }
+
+    private void scheduleImageUpload(Hotel hotel) {
+        if (hotel.getImageUrl() != null) {
+            imageUploadService.schedule(ImageUploadService.Target.HOTEL, hotel.getId(), List.of(hotel.getImageUrl()));
+        }
+    }
+
+    private void deleteHotelImages(Hotel hotel) {
+        deleteImage(hotel.getImageUrl());
+        deleteImage(hotel.getCardImageUrl());
+        deleteImage(hotel.getThumbnailUrl());
+    }
+
+    private void deleteRoomImages(Room room) {
+        room.getListImageUrl().forEach(this::deleteImage);
+        room.getImageRenditions().forEach(renditions -> {
+            deleteImage(renditions.getCardUrl());
+            deleteImage(renditions.getThumbnailUrl());
+        });
     }
 
     private void deleteImage(String url) {
-        if (url != null && !url.isBlank()) {
-            try {
-                String publicId = extractPublicIdFromUrl(url);
-                kafkaTemplate.send("delete-image", publicId);
-            } catch (Exception e) {
-                log.warn("Failed to delete image: {}", url, e);
-            }
+        if (url == null || url.isBlank() || imageUploadService.isStaged(url)) {
+            return;
+        }
+        String publicId;
+        try {
+            publicId = extractPublicIdFromUrl(url);
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete image: {}", url, e);
+            return;
         }
+        // not caught: the outbox write joins this transaction, which could not commit after a failure anyway
+        outboxService.enqueue(CloudinaryService.DELETE_TOPIC, publicId, publicId);
     }
 
 
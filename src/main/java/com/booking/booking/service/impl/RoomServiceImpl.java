@@ -3,27 +3,31 @@ package com.booking.booking.service.impl;
 import com.booking.booking.common.UserType;
 import com.booking.booking.dto.RoomDTO;
 import com.booking.booking.dto.response.RoomResponse;
+import com.booking.booking.event.HotelChangedEvent;
 import com.booking.booking.exception.BadRequestException;
 import com.booking.booking.exception.InvalidRoomIdsException;
 import com.booking.booking.exception.ResourceNotFoundException;
 import com.booking.booking.mapper.RoomMapper;
 import com.booking.booking.model.Booking;
 import com.booking.booking.model.Hotel;
+import com.booking.booking.model.ImageRenditions;
 import com.booking.booking.model.Room;
 import com.booking.booking.model.User;
 import com.booking.booking.repository.BookingRepository;
 import com.booking.booking.repository.HotelRepository;
 import com.booking.booking.repository.RoomRepository;
 import com.booking.booking.service.CloudinaryService;
+import com.booking.booking.service.ImageUploadService;
+import com.booking.booking.service.OutboxService;
 import com.booking.booking.service.interfaces.RoomService;
 import com.booking.booking.util.UserContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,7 +36,6 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -45,8 +48,9 @@ public class RoomServiceImpl implements RoomService {
     private final RoomRepository roomRepository;
     private final HotelRepository hotelRepository;
     private final BookingRepository bookingRepository;
-    private final CloudinaryService cloudinaryService;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ImageUploadService imageUploadService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -82,7 +86,7 @@ public class RoomServiceImpl implements RoomService {
             throw new BadRequestException("Number of rooms exceeds total allowed rooms for the hotel");
         }
 
-        List<String> listImageUrl = uploadImages(imagesRoom);
+        List<String> listImageUrl = imageUploadService.stageAll(imagesRoom);
         room.setListImageUrl(listImageUrl);
 
         Room roomEntity = roomMapper.toRoom(room);
@@ -91,6 +95,8 @@ public class RoomServiceImpl implements RoomService {
         roomEntity.setHotel(existHotel);
 
         roomRepository.save(roomEntity);
+        imageUploadService.schedule(ImageUploadService.Target.ROOM, roomEntity.getId(), listImageUrl);
+        publishHotelChanged(List.of(roomEntity));
         return roomMapper.toRoomResponseDTO(roomEntity);
     }
 
@@ -130,7 +136,7 @@ public class RoomServiceImpl implements RoomService {
                 }
             }
 
-            List<String> newImageUrls = uploadImages(images);
+            List<String> newImageUrls = imageUploadService.stageAll(images);
             finalImageList.addAll(newImageUrls);
 
             log.info("Final image list: {} old + {} new = {} total",
@@ -148,61 +154,48 @@ public class RoomServiceImpl implements RoomService {
                 }
                 if (!imagesToDelete.isEmpty()) {
                     log.info("Deleting {} unused images", imagesToDelete.size());
-                    deleteImages(imagesToDelete);
+                    deleteImages(room, imagesToDelete);
                 }
             }
 
             room.setListImageUrl(finalImageList);
+            imageUploadService.schedule(ImageUploadService.Target.ROOM, room.getId(), newImageUrls);
         }
 
-        return roomMapper.toRoomResponseDTO(roomRepository.save(room));
+        Room saved = roomRepository.save(room);
+        publishHotelChanged(List.of(saved));
+        return roomMapper.toRoomResponseDTO(saved);
     }
 
-    private List<String> uploadImages(MultipartFile[] images) {
-        if (images == null || images.length == 0) {
-            return Collections.emptyList();
-        }
-
-        return Stream.of(images)
-                .parallel()
-                .map(image -> {
-                    try {
-                        Map<String, Object> data = cloudinaryService.upload(image);
-                        return (String) data.get("secure_url");
-                    } catch (Exception e) {
-                        throw new BadRequestException("Failed to upload image: " + image.getOriginalFilename());
-                    }
-                })
-                .collect(Collectors.toList());
-    }
-
-    private void deleteImages(List<String> imageUrls) {
+    private void deleteImages(Room room, List<String> imageUrls) {
         if (imageUrls == null || imageUrls.isEmpty()) {
             return;
         }
 
-        imageUrls.forEach(url -> {
-            try {
-                String publicId = extractPublicIdFromUrl(url);
-                if (publicId != null) {
-                    kafkaTemplate.send("delete-image", publicId)
-                            .whenComplete((result, ex) -> {
-                                if (ex == null) {
-                                    log.info("Image deleted successfully: {}", publicId);
-                                } else {
-                                    log.error("Failed to delete image {}: {}", publicId, ex.getMessage());
-                                }
-                            });
-                }
-            } catch (Exception e) {
-                log.warn("Failed to process image deletion: {}", url, e);
+        Set<String> urls = new LinkedHashSet<>();
+        for (String url : imageUrls) {
+            ImageRenditions renditions = room.renditionsOf(url);
+            urls.add(url);
+            urls.add(renditions.getCardUrl());
+            urls.add(renditions.getThumbnailUrl());
+        }
+        room.getImageRenditions().removeIf(renditions -> imageUrls.contains(renditions.getFullUrl()));
+
+        urls.forEach(url -> {
+            if (imageUploadService.isStaged(url)) {
+                return;
+            }
+            String publicId = extractPublicIdFromUrl(url);
+            if (publicId != null) {
+                outboxService.enqueue(CloudinaryService.DELETE_TOPIC, publicId, publicId);
             }
         });
     }
 
     private String extractPublicIdFromUrl(String imageUrl) {
         try {
-            String publicIdWithFolder = imageUrl.substring(imageUrl.indexOf("/upload/") + 8);
+            String publicIdWithFolder = imageUrl.substring(imageUrl.indexOf("/upload/") + 8)
+                    .replaceFirst("^v\\d+/", "");
             return publicIdWithFolder.substring(0, publicIdWithFolder.lastIndexOf('.'));
         } catch (Exception e) {
             log.error("Failed to extract public_id from URL: {}", imageUrl, e);
@@ -223,10 +216,11 @@ public class RoomServiceImpl implements RoomService {
             throw new BadRequestException("Room with id " + id + " currently has active bookings and cannot be deleted");
         }
 
-        deleteImages(room.getListImageUrl());
+        deleteImages(room, room.getListImageUrl());
         room.setDeleted(true);
         room.setDeletedAt(new Date());
         roomRepository.save(room);
+        publishHotelChanged(List.of(room));
     }
 
     @Override
@@ -255,6 +249,7 @@ public class RoomServiceImpl implements RoomService {
         }
 
         roomRepository.softDeleteByIds(ids, new Date());
+        publishHotelChanged(existing);
     }
 
     @Override
@@ -264,6 +259,7 @@ public class RoomServiceImpl implements RoomService {
         room.setDeleted(false);
         room.setDeletedAt(null);
         roomRepository.save(room);
+        publishHotelChanged(List.of(room));
     }
 
     @Override
@@ -275,14 +271,16 @@ public class RoomServiceImpl implements RoomService {
             throw new InvalidRoomIdsException("Some room IDs are invalid or not deleted", invalid);
         }
         roomRepository.restoreByIds(ids);
+        publishHotelChanged(existing);
     }
 
     @Override
     public void deleteRoomPermanently(Long id) {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Room not found with id: " + id));
-        deleteImages(room.getListImageUrl());
+        deleteImages(room, room.getListImageUrl());
         roomRepository.delete(room);
+        publishHotelChanged(List.of(room));
     }
 
     @Override
@@ -294,9 +292,10 @@ public class RoomServiceImpl implements RoomService {
             throw new InvalidRoomIdsException("Some room IDs are invalid", invalid);
         }
         list.forEach(room -> {
-            deleteImages(room.getListImageUrl());
+            deleteImages(room, room.getListImageUrl());
             roomRepository.delete(room);
         });
+        publishHotelChanged(list);
     }
 
     public boolean isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
@@ -340,6 +339,7 @@ public class RoomServiceImpl implements RoomService {
         rooms.forEach(room -> room.setAvailable(status));
 
         roomRepository.saveAll(rooms);
+        publishHotelChanged(rooms);
     }
 
     @Transactional
@@ -375,6 +375,14 @@ public class RoomServiceImpl implements RoomService {
         });
 
         roomRepository.saveAll(expiredRooms);
+        publishHotelChanged(expiredRooms);
+    }
+
+    private void publishHotelChanged(List<Room> rooms) {
+        rooms.stream()
+                .map(room -> room.getHotel().getId())
+                .distinct()
+                .forEach(hotelId -> eventPublisher.publishEvent(new HotelChangedEvent(hotelId)));
     }
 
 
@@ -7,6 +7,7 @@ import com.booking.booking.dto.request.*;
 import com.booking.booking.dto.response.PageResponse;
 import com.booking.booking.dto.response.UserPageResponse;
 import com.booking.booking.dto.response.UserResponse;
+import com.booking.booking.event.UserRegisteredEvent;
 import com.booking.booking.exception.*;
 import com.booking.booking.mapper.UserMapper;
 import com.booking.booking.model.ForgotPassword;
@@ -22,6 +23,7 @@ import com.booking.booking.service.interfaces.UserService;
 import com.booking.booking.util.UserContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -29,7 +31,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -52,6 +53,7 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final RedisTemplate<String, String> redisTemplate;
     private final ForgotPasswordRepository forgotPasswordRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public UserPageResponse findAll(String keyword, String sort, int page, int size) {
@@ -174,6 +176,7 @@ public class UserServiceImpl implements UserService {
 
 
         User user = userRepository.save(userMapper.toUserEntity(req));
+        eventPublisher.publishEvent(new UserRegisteredEvent(user.getId()));
         try {
             emailService.sendVerificationEmail(req.getEmail(), req.getUsername());
         } catch (Exception e) {
@@ -295,32 +298,16 @@ public class UserServiceImpl implements UserService {
         if (user == null) {
             throw new ResourceNotFoundException("User not found with username" + req.getUsername());
         }
-        String randomPass = generateStrongPassword(12);
-        user.setPassword(passwordEncoder.encode(randomPass));
-        userRepository.save(user);
-        try {
-            emailService.sendSimpleEmail(user.getEmail(), "Reset password", randomPass);
-        } catch (Exception e) {
-            log.error("Failed to send reset password email", e);
-        }
+        // the new password is generated when the email goes out and set once it was delivered
+        emailService.sendTemporaryPasswordEmail(user.getEmail(), user.getUsername());
     }
 
     @Override
     public void verifyEmail(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with username" + username));
-        int otp = otpGenerator();
-        ForgotPassword fp = ForgotPassword.builder()
-                .otp(otp)
-                .expirationTime(new Date(System.currentTimeMillis() + 5 * 60 * 1000))
-                .user(user)
-                .build();
-        try {
-            emailService.sendSimpleEmail(user.getEmail(), "OTP for Forgot Password request", String.valueOf(otp));
-        } catch (Exception e) {
-            log.error("Failed to send reset password email", e);
-        }
-        forgotPasswordRepository.save(fp);
+        // the OTP is issued when the email goes out, so its 5 minutes do not run while the email is queued
+        emailService.sendPasswordOtpEmail(user.getEmail(), user.getUsername());
     }
 
     @Override
@@ -358,31 +345,6 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private Integer otpGenerator() {
-        SecureRandom random = new SecureRandom();
-        return random.nextInt(900000) + 100000;
-    }
-
-    public String generateStrongPassword(int length) {
-        String upper = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        String lower = "abcdefghijklmnopqrstuvwxyz";
-        String digits = "0123456789";
-        String special = "!@#$%^&*()-_=+<>?";
-        String all = upper + lower + digits + special;
-        SecureRandom random = new SecureRandom();
-        StringBuilder password = new StringBuilder();
-        password.append(upper.charAt(random.nextInt(upper.length())));
-        password.append(lower.charAt(random.nextInt(lower.length())));
-        password.append(digits.charAt(random.nextInt(digits.length())));
-        password.append(special.charAt(random.nextInt(special.length())));
-        for (int i = 4; i < length; i++) {
-            password.append(all.charAt(random.nextInt(all.length())));
-        }
-        List<Character> chars = password.chars().mapToObj(c -> (char) c).collect(Collectors.toList());
-        Collections.shuffle(chars, random);
-        return chars.stream().map(String::valueOf).collect(Collectors.joining());
-    }
-
     private User getUserEntity(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
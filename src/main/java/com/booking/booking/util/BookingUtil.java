@@ -1,9 +1,11 @@
 package com.booking.booking.util;
 
 import com.booking.booking.common.BookingStatus;
+import com.booking.booking.event.BookingStatusChangedEvent;
 import com.booking.booking.model.Booking;
 import com.booking.booking.repository.RoomRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class BookingUtil {
 
     private final RoomRepository roomRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void handleBookingWithStatus(Booking booking, BookingStatus bookingStatus) {
         switch (bookingStatus) {
@@ -26,4 +29,18 @@ public class BookingUtil {
             }
         }
     }
+
+    public void publishStatusChanged(Booking booking, BookingStatus previousStatus) {
+        if (previousStatus == booking.getStatus()) {
+            return;
+        }
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(
+                booking.getId(),
+                booking.getHotel().getId(),
+                booking.getGuest() != null ? booking.getGuest().getId() : null,
+                previousStatus,
+                booking.getStatus(),
+                booking.getTotalPrice(),
+                booking.getCreatedAt()));
+    }
 }
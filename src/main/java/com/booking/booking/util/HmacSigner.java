@@ -0,0 +1,63 @@
+package com.booking.booking.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * HMAC with a fixed key that produces lower-case hex. {@link Mac} is not thread-safe, so each thread keeps its own
+ * instance, initialized with the key once instead of on every signature.
+ */
+public final class HmacSigner {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String algorithm;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    public HmacSigner(String algorithm, String secret) {
+        this.algorithm = algorithm;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac();
+    }
+
+    public String sign(String data) {
+        // doFinal resets the Mac, so the thread's instance is ready for the next call
+        return toHex(macs.get().doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Compares in constant time and ignores the case of {@code signature}.
+     */
+    public boolean verify(String data, String signature) {
+        if (signature == null) {
+            return false;
+        }
+        byte[] expected = sign(data).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signature.toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[2 * i] = HEX[(bytes[i] >> 4) & 0xf];
+            out[2 * i + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(out);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + algorithm, e);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.booking.booking.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Finds Vietnamese provinces in free text. The gazetteer ({@code rag/vn-locations.txt}) is folded once into an
+ * Aho-Corasick automaton over an alphabet of {@code a-z}, {@code 0-9} and space, so a question is matched in one pass.
+ * A folded match is only accepted when the accents in the text agree with the alias, or when the user typed that part
+ * of the question without accents at all; otherwise "là gì" would be read as La Gi and "huệ" as Huế.
+ */
+@Component
+@Slf4j(topic = "LOCATION-RECOGNIZER")
+public class LocationRecognizer {
+
+    private static final String GAZETTEER = "rag/vn-locations.txt";
+    private static final int ALPHABET = 37;
+    private static final int SPACE = 36;
+    private static final String ACCENT_ONLY = "=";
+
+    private final List<String> canonicals = new ArrayList<>();
+
+    private int[][] transitions;
+    private int[][] outputs;
+    private int[] patternLengths;
+    private List<Variant>[] patternVariants;
+
+    public LocationRecognizer() {
+        Map<String, List<Variant>> patterns = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(GAZETTEER).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] names = line.split("\\|");
+                int id = canonicals.size();
+                canonicals.add(stripMarker(names[0]));
+                for (String name : names) {
+                    boolean accentOnly = name.trim().startsWith(ACCENT_ONLY);
+                    String normalized = normalize(stripMarker(name));
+                    if (!normalized.isEmpty()) {
+                        patterns.computeIfAbsent(foldNormalized(normalized), k -> new ArrayList<>())
+                                .add(new Variant(normalized, id, accentOnly));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + GAZETTEER, e);
+        }
+        build(patterns);
+        log.info("Loaded {} locations with {} variants", canonicals.size(), patterns.size());
+    }
+
+    /**
+     * @return canonical names of the locations mentioned in {@code text}, in order of appearance
+     */
+    public Set<String> recognize(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return result;
+        }
+        String normalized = normalize(text);
+        String folded = foldNormalized(normalized);
+
+        List<int[]> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < folded.length(); i++) {
+            state = transitions[state][indexOf(folded.charAt(i))];
+            for (int pattern : outputs[state]) {
+                int start = i + 1 - patternLengths[pattern];
+                if (isBoundary(folded, start - 1) && isBoundary(folded, i + 1)) {
+                    int canonical = resolve(pattern, normalized.substring(start, i + 1), folded.substring(start, i + 1));
+                    if (canonical >= 0) {
+                        matches.add(new int[]{start, i + 1, canonical});
+                    }
+                }
+            }
+        }
+
+        // leftmost-longest, so "phan rang tháp chàm" wins over "phan rang" and overlapping shorter names are dropped
+        matches.sort(Comparator.<int[]>comparingInt(m -> m[0]).thenComparingInt(m -> -m[1]));
+        int coveredUntil = 0;
+        for (int[] match : matches) {
+            if (match[0] >= coveredUntil) {
+                result.add(canonicals.get(match[2]));
+                coveredUntil = match[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Picks the variant the matched text actually spells: an exact match with accents wins, an unaccented span may
+     * match any variant not marked accent-only, and an accented span that disagrees with every variant is rejected.
+     */
+    private int resolve(int pattern, String span, String foldedSpan) {
+        for (Variant variant : patternVariants[pattern]) {
+            if (variant.text().equals(span)) {
+                return variant.canonical();
+            }
+        }
+        if (!span.equals(foldedSpan)) {
+            return -1;
+        }
+        for (Variant variant : patternVariants[pattern]) {
+            if (!variant.accentOnly()) {
+                return variant.canonical();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Key stored in the vector store metadata for a hotel's province: the folded canonical name when the gazetteer
+     * knows it, otherwise the folded province itself.
+     */
+    public String provinceKey(String province, String district) {
+        Set<String> found = recognize(province);
+        if (found.isEmpty()) {
+            found = recognize(district);
+        }
+        return found.isEmpty() ? fold(province) : fold(found.iterator().next());
+    }
+
+    /**
+     * Lower-cases, strips diacritics (including {@code đ}) and collapses everything else into single spaces.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            } else {
+                c = Character.toLowerCase(c);
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lower-cases and composes the text, keeping accents, and collapses everything but letters and digits into single
+     * spaces. Every character maps to exactly one character of {@link #foldNormalized}, so offsets line up.
+     */
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String composed = Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(composed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < composed.length(); i++) {
+            char c = composed.charAt(i);
+            if (Character.isLetterOrDigit(c) && !fold(String.valueOf(c)).isEmpty()) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String foldNormalized(String normalized) {
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            sb.append(c == ' ' ? ' ' : fold(String.valueOf(c)).charAt(0));
+        }
+        return sb.toString();
+    }
+
+    private static String stripMarker(String name) {
+        String trimmed = name.trim();
+        return trimmed.startsWith(ACCENT_ONLY) ? trimmed.substring(ACCENT_ONLY.length()) : trimmed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void build(Map<String, List<Variant>> patterns) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        gotoTable.add(newNode());
+        nodeOutputs.add(new ArrayList<>());
+
+        patternLengths = new int[patterns.size()];
+        patternVariants = new List[patterns.size()];
+        int patternId = 0;
+        for (Map.Entry<String, List<Variant>> entry : patterns.entrySet()) {
+            String pattern = entry.getKey();
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = indexOf(pattern.charAt(i));
+                if (gotoTable.get(node)[c] < 0) {
+                    gotoTable.get(node)[c] = gotoTable.size();
+                    gotoTable.add(newNode());
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                node = gotoTable.get(node)[c];
+            }
+            nodeOutputs.get(node).add(patternId);
+            patternLengths[patternId] = pattern.length();
+            patternVariants[patternId] = entry.getValue();
+            patternId++;
+        }
+
+        int[] fail = new int[gotoTable.size()];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            int child = gotoTable.get(0)[c];
+            if (child < 0) {
+                gotoTable.get(0)[c] = 0;
+            } else {
+                fail[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            nodeOutputs.get(node).addAll(nodeOutputs.get(fail[node]));
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = gotoTable.get(node)[c];
+                if (child < 0) {
+                    gotoTable.get(node)[c] = gotoTable.get(fail[node])[c];
+                } else {
+                    fail[child] = gotoTable.get(fail[node])[c];
+                    queue.add(child);
+                }
+            }
+        }
+
+        transitions = gotoTable.toArray(int[][]::new);
+        outputs = new int[nodeOutputs.size()][];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = nodeOutputs.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ALPHABET];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int indexOf(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= '0' && c <= '9') return 26 + (c - '0');
+        return SPACE;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || text.charAt(index) == ' ';
+    }
+
+    private record Variant(String text, int canonical, boolean accentOnly) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.booking.booking.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking rate limiter refilled at a fixed rate with one second of burst. A request larger than the bucket is
+ * allowed and paid back by the following callers, so batches bigger than the rate still go through.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double permitsPerSecond) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, permitsPerSecond);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Waits until {@code permits} can be taken; returns early, with the interrupt flag set, when interrupted.
+     */
+    public void acquire(int permits) {
+        long waitNanos = reserve(permits);
+        if (waitNanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized long reserve(int permits) {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerNano);
+    }
+}
@@ -8,7 +8,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
 public class VnpayUtil {
   public static String hmacSHA512(final String key, final String data) {
@@ -22,11 +22,7 @@ public class VnpayUtil {
       hmac512.init(secretKey);
       byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
       byte[] result = hmac512.doFinal(dataBytes);
-      StringBuilder sb = new StringBuilder(2 * result.length);
-      for (byte b : result) {
-        sb.append(String.format("%02x", b & 0xff));
-      }
-      return sb.toString();
+      return HmacSigner.toHex(result);
 
     } catch (Exception ex) {
       return "";
@@ -56,15 +52,36 @@ public class VnpayUtil {
     return sb.toString();
   }
   public static String getPaymentURL(Map<String, String> paramsMap, boolean encodeKey) {
-    return paramsMap.entrySet().stream()
-        .filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty())
-        .sorted(Map.Entry.comparingByKey())
-        .map(entry ->
-            (encodeKey ? URLEncoder.encode(entry.getKey(),
-                StandardCharsets.US_ASCII)
-                : entry.getKey()) + "=" +
-                URLEncoder.encode(entry.getValue()
-                    , StandardCharsets.US_ASCII))
-        .collect(Collectors.joining("&"));
+    CanonicalQuery query = canonicalQuery(paramsMap);
+    return encodeKey ? query.query() : query.hashData();
+  }
+
+  /**
+   * Sorts the non-empty parameters once and encodes each value once, producing both the URL query (encoded keys)
+   * and the data VNPay signs (raw keys).
+   */
+  public static CanonicalQuery canonicalQuery(Map<String, String> paramsMap) {
+    TreeMap<String, String> sorted = new TreeMap<>();
+    paramsMap.forEach((key, value) -> {
+      if (value != null && !value.isEmpty()) {
+        sorted.put(key, value);
+      }
+    });
+
+    StringBuilder query = new StringBuilder(256);
+    StringBuilder hashData = new StringBuilder(256);
+    for (Map.Entry<String, String> entry : sorted.entrySet()) {
+      if (!query.isEmpty()) {
+        query.append('&');
+        hashData.append('&');
+      }
+      String value = URLEncoder.encode(entry.getValue(), StandardCharsets.US_ASCII);
+      query.append(URLEncoder.encode(entry.getKey(), StandardCharsets.US_ASCII)).append('=').append(value);
+      hashData.append(entry.getKey()).append('=').append(value);
+    }
+    return new CanonicalQuery(query.toString(), hashData.toString());
+  }
+
+  public record CanonicalQuery(String query, String hashData) {
   }
-}
\ No newline at end of file
+}
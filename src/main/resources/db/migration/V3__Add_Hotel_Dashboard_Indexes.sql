@@ -0,0 +1,10 @@
+-- Per-hotel indexes backing the hotel-scoped dashboard (MANAGER / STAFF)
+
+-- Booking table indexes
+CREATE INDEX IF NOT EXISTS idx_booking_hotel_status ON tbl_booking(hotel_id, status);
+CREATE INDEX IF NOT EXISTS idx_booking_hotel_created_at ON tbl_booking(hotel_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_booking_hotel_status_created_at ON tbl_booking(hotel_id, status, created_at) INCLUDE (total_price);
+CREATE INDEX IF NOT EXISTS idx_booking_hotel_guest ON tbl_booking(hotel_id, guest_id);
+
+-- Room table indexes
+CREATE INDEX IF NOT EXISTS idx_room_hotel_type_active ON tbl_room(hotel_id, type_room) WHERE is_deleted = false;
@@ -0,0 +1,90 @@
+package com.booking.booking.benchmark;
+
+import com.booking.booking.util.LocationRecognizer;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic, offline stand-in for the embedding model: folded words, word bigrams and character trigrams are
+ * hashed into a fixed-size signed vector. It is not semantic, but it is stable, so score changes come from the code.
+ */
+class HashingEmbeddingModel implements EmbeddingModel {
+
+    private static final int DIMENSIONS = 512;
+
+    private long nanos;
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        long start = System.nanoTime();
+        List<Embedding> embeddings = new ArrayList<>();
+        List<String> texts = request.getInstructions();
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(vectorize(texts.get(i)), i));
+        }
+        nanos += System.nanoTime() - start;
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return DIMENSIONS;
+    }
+
+    /**
+     * Time spent embedding since the previous call.
+     */
+    long takeNanos() {
+        long taken = nanos;
+        nanos = 0;
+        return taken;
+    }
+
+    private static float[] vectorize(String text) {
+        float[] vector = new float[DIMENSIONS];
+        String[] words = LocationRecognizer.fold(text).split(" ");
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            if (word.isEmpty()) {
+                continue;
+            }
+            add(vector, "w:" + word, 1.0f);
+            if (i + 1 < words.length) {
+                add(vector, "b:" + word + " " + words[i + 1], 1.0f);
+            }
+            String padded = "_" + word + "_";
+            for (int j = 0; j + 3 <= padded.length(); j++) {
+                add(vector, "c:" + padded.substring(j, j + 3), 0.5f);
+            }
+        }
+
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm > 0) {
+            float inv = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= inv;
+            }
+        }
+        return vector;
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        int h = feature.hashCode() * 0x9E3779B1;
+        h ^= h >>> 16;
+        vector[Math.floorMod(h, DIMENSIONS)] += (h & 0x40000000) != 0 ? weight : -weight;
+    }
+}
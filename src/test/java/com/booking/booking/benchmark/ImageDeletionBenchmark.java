@@ -0,0 +1,168 @@
+package com.booking.booking.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.booking.booking.service.CloudinaryService;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares per-image {@code destroy} calls with the batched {@link CloudinaryService#deleteAll} against a local
+ * Cloudinary stand-in (an HTTP server on {@code cloudinary.upload_prefix}) that adds a fixed latency per request and
+ * reports a share of the ids as failed on their first delete, to exercise the per-id retry.
+ * <p>
+ * Run with {@code mvn -Pimage-delete-benchmark test-compile exec:java [-Dexec.args="400 20 0.05"]} (images, latency
+ * per request in ms, transient failure rate).
+ */
+public class ImageDeletionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        int images = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        long latencyMs = args.length > 1 ? Long.parseLong(args[1]) : 20;
+        double failureRate = args.length > 2 ? Double.parseDouble(args[2]) : 0.05;
+
+        StandIn standIn = new StandIn(latencyMs, failureRate);
+        standIn.start();
+        try {
+            Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                    "cloud_name", "demo",
+                    "api_key", "key",
+                    "api_secret", "secret",
+                    "upload_prefix", "http://localhost:" + standIn.port()));
+
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < images; i++) {
+                ids.add("booking/hotel-" + (i / 8) + "-img-" + i);
+            }
+
+            long start = System.nanoTime();
+            for (String id : ids) {
+                cloudinary.uploader().destroy(id + "-single", ObjectUtils.emptyMap());
+            }
+            long singleMs = (System.nanoTime() - start) / 1_000_000;
+            int singleRequests = standIn.requests.getAndSet(0);
+
+            CloudinaryService service = new CloudinaryService(cloudinary, null);
+            setField(service, "deleteChunkSize", 100);
+            setField(service, "deleteMaxAttempts", 3);
+            setField(service, "deleteBackoffMs", 100L);
+
+            start = System.nanoTime();
+            Set<String> failed = service.deleteAll(ids);
+            long bulkMs = (System.nanoTime() - start) / 1_000_000;
+            int bulkRequests = standIn.requests.get();
+
+            System.out.printf("%d images, %d ms per request, %.0f%% transient failures%n",
+                    images, latencyMs, failureRate * 100);
+            System.out.printf("destroy per image : %5d requests %6d ms%n", singleRequests, singleMs);
+            System.out.printf("delete_resources  : %5d requests %6d ms (%d deleted, %d failed)%n",
+                    bulkRequests, bulkMs, standIn.deleted.size(), failed.size());
+            if (!failed.isEmpty() || standIn.deleted.size() != images) {
+                System.exit(1);
+            }
+        } finally {
+            standIn.stop();
+        }
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        java.lang.reflect.Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static class StandIn {
+        private final long latencyMs;
+        private final double failureRate;
+        private final AtomicInteger requests = new AtomicInteger();
+        private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+        private final Set<String> failedOnce = ConcurrentHashMap.newKeySet();
+        private final Random random = new Random(42);
+        private final ExecutorService executor = Executors.newFixedThreadPool(4);
+        private HttpServer server;
+
+        StandIn(long latencyMs, double failureRate) {
+            this.latencyMs = latencyMs;
+            this.failureRate = failureRate;
+        }
+
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            String body;
+            if (path.endsWith("/destroy")) {
+                body = "{\"result\":\"ok\"}";
+            } else if (path.contains("/resources/image/upload")) {
+                String query = Optional.ofNullable(exchange.getRequestURI().getRawQuery()).orElse("");
+                String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                StringBuilder statuses = new StringBuilder();
+                for (String pair : (query + "&" + form).split("&")) {
+                    int eq = pair.indexOf('=');
+                    if (eq < 0 || !URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).startsWith("public_ids")) {
+                        continue;
+                    }
+                    String id = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                    boolean fail;
+                    synchronized (random) {
+                        fail = !failedOnce.contains(id) && random.nextDouble() < failureRate;
+                    }
+                    if (fail) {
+                        failedOnce.add(id);
+                    } else {
+                        deleted.add(id);
+                    }
+                    statuses.append(statuses.isEmpty() ? "" : ",")
+                            .append('"').append(id).append("\":\"").append(fail ? "error" : "deleted").append('"');
+                }
+                body = "{\"deleted\":{" + statuses + "},\"partial\":false}";
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
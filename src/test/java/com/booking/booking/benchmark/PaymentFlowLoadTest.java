@@ -0,0 +1,266 @@
+package com.booking.booking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load generator for the booking payment flow: search → hold → book → pay → IPN, started at a fixed
+ * target rate (open loop, so a slow server shows up as latency rather than as a lower offered load).
+ * <p>
+ * The IPN step is the time from the MoMo {@code /create} answer until the booking leaves {@code PAYING}, i.e. until the
+ * gateway callback has been processed. Point it at an instance started with the {@code gateway-sim} profile so the
+ * callbacks come from the local simulator.
+ * <p>
+ * Run with {@code mvn -Pload-test test-compile exec:java [-Dexec.args="http://localhost:8080 20 60 64"]}
+ * (base URL, flows per second, duration in seconds, max flows in flight). Credentials and the search keyword come from
+ * {@code -Dloadtest.username}, {@code -Dloadtest.password} and {@code -Dloadtest.keyword}.
+ */
+public class PaymentFlowLoadTest {
+
+    private static final String[] STEPS = {"search", "hold", "book", "pay", "ipn"};
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long IPN_TIMEOUT_MS = 30_000;
+    private static final long IPN_POLL_MS = 100;
+
+    private final String baseUrl;
+    private final String keyword;
+    private final HttpClient client;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, StepStats> stats = new LinkedHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong declined = new AtomicLong();
+    private String token;
+
+    private PaymentFlowLoadTest(String baseUrl, String keyword, int maxInFlight) {
+        this.baseUrl = baseUrl;
+        this.keyword = keyword;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, maxInFlight / 4)))
+                .build();
+        for (String step : STEPS) {
+            stats.put(step, new StepStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int maxInFlight = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+        PaymentFlowLoadTest test = new PaymentFlowLoadTest(baseUrl,
+                System.getProperty("loadtest.keyword", "Hà Nội"), maxInFlight);
+        test.login(System.getProperty("loadtest.username", "admin"), System.getProperty("loadtest.password", "123456"));
+        System.out.printf("Driving %s at %.1f flows/s for %ds (max %d in flight)%n",
+                baseUrl, rate, durationSeconds, maxInFlight);
+
+        long elapsedNanos = test.run(rate, durationSeconds, maxInFlight);
+        test.report(elapsedNanos);
+        System.exit(0);
+    }
+
+    private long run(double rate, int durationSeconds, int maxInFlight) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(maxInFlight);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong skipped = new AtomicLong();
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+
+        long start = System.nanoTime();
+        ticker.scheduleAtFixedRate(() -> {
+            if (!inFlight.tryAcquire()) {
+                skipped.incrementAndGet();
+                return;
+            }
+            workers.execute(() -> {
+                try {
+                    flow();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }, 0, Math.max(1, (long) (1_000_000 / rate)), TimeUnit.MICROSECONDS);
+
+        Thread.sleep(durationSeconds * 1000L);
+        ticker.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(IPN_TIMEOUT_MS + 30_000, TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        if (skipped.get() > 0) {
+            System.out.printf("%d flows not started: %d already in flight%n", skipped.get(), maxInFlight);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void flow() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // spread stays over a year so concurrent flows rarely compete for the same room and night
+        LocalDate checkIn = LocalDate.now().plusDays(random.nextInt(7, 372));
+        LocalDate checkOut = checkIn.plusDays(random.nextInt(1, 4));
+
+        ObjectNode search = mapper.createObjectNode()
+                .put("keyword", keyword)
+                .put("checkIn", checkIn.toString())
+                .put("checkOut", checkOut.toString())
+                .put("numberOfGuests", 2)
+                .put("numberOfRooms", 1);
+        JsonNode hotels = step("search", () -> call("POST", "/api/v1/hotels/search", search));
+        if (hotels == null) return;
+
+        List<long[]> candidates = new ArrayList<>();
+        for (JsonNode hotel : hotels) {
+            for (JsonNode room : hotel.path("availableRooms")) {
+                candidates.add(new long[]{hotel.path("hotelId").asLong(), room.path("roomId").asLong()});
+            }
+        }
+        if (candidates.isEmpty()) {
+            stats.get("search").fail("no available room");
+            return;
+        }
+        long[] pick = candidates.get(random.nextInt(candidates.size()));
+
+        if (step("hold", () -> call("PUT", "/api/v1/rooms/hold", mapper.createArrayNode().add(pick[1]))) == null) {
+            return;
+        }
+
+        ObjectNode booking = mapper.createObjectNode()
+                .put("hotelId", pick[0])
+                .put("checkInDate", checkIn.toString())
+                .put("checkOutDate", checkOut.toString())
+                .put("paymentType", "WALLET");
+        booking.putArray("roomIds").add(pick[1]);
+        JsonNode created = step("book", () -> call("POST", "/api/v1/bookings", booking));
+        if (created == null) return;
+        long bookingId = (created.isArray() ? created.path(0) : created).path("id").asLong();
+
+        JsonNode payment = step("pay", () -> {
+            JsonNode data = call("POST", "/api/payment/process?bookingId=" + bookingId + "&paymentMethod=MOMO", null);
+            if (data.path("resultCode").asInt(-1) != 0) {
+                throw new IllegalStateException("resultCode " + data.path("resultCode").asText());
+            }
+            return data;
+        });
+        if (payment == null) return;
+
+        step("ipn", () -> {
+            long deadline = System.currentTimeMillis() + IPN_TIMEOUT_MS;
+            while (System.currentTimeMillis() < deadline) {
+                String status = call("GET", "/api/v1/bookings/" + bookingId, null).path("status").asText();
+                if ("CONFIRMED".equals(status)) {
+                    completed.incrementAndGet();
+                    return mapper.nullNode();
+                }
+                if ("CANCELLED".equals(status)) {
+                    declined.incrementAndGet();
+                    return mapper.nullNode();
+                }
+                Thread.sleep(IPN_POLL_MS);
+            }
+            throw new TimeoutException("booking " + bookingId + " still unpaid");
+        });
+    }
+
+    private JsonNode step(String name, Callable<JsonNode> action) {
+        long start = System.nanoTime();
+        try {
+            JsonNode result = action.call();
+            stats.get(name).record(System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            stats.get(name).fail(e.getMessage());
+            return null;
+        }
+    }
+
+    private void login(String username, String password) throws Exception {
+        ObjectNode body = mapper.createObjectNode().put("username", username).put("password", password);
+        token = call("POST", "/api/auth/login", body).path("accessToken").asText();
+        if (token.isEmpty()) {
+            throw new IllegalStateException("Login failed for " + username);
+        }
+    }
+
+    /**
+     * Sends one request and returns the {@code data} of the {@code ResponseSuccess} payload, failing on any non-2xx
+     * status, HTTP or in the payload.
+     */
+    private JsonNode call(String method, String path, JsonNode body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode payload = response.body().isEmpty() ? mapper.nullNode() : mapper.readTree(response.body());
+        int status = payload.path("status").asInt(response.statusCode());
+        if (response.statusCode() / 100 != 2 || status / 100 != 2) {
+            throw new IllegalStateException(status + " " + payload.path("message").asText());
+        }
+        return payload.path("data");
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nFlows: %d confirmed, %d declined in %.1fs (%.1f confirmed/s)%n",
+                completed.get(), declined.get(), seconds, completed.get() / seconds);
+        System.out.printf("%-8s %8s %7s %9s %9s %9s %9s %9s%n",
+                "step", "ok", "errors", "ok/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        stats.forEach((name, step) -> {
+            long[] latencies = step.sorted();
+            System.out.printf("%-8s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    name, latencies.length, step.errors.get(), latencies.length / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+        });
+        stats.forEach((name, step) -> step.errorSamples.forEach((message, count) ->
+                System.out.printf("  %s error x%d: %s%n", name, count.get(), message)));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static class StepStats {
+        private static final int MAX_ERROR_KINDS = 10;
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<String, AtomicLong> errorSamples = new ConcurrentHashMap<>();
+
+        synchronized void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        void fail(String message) {
+            errors.incrementAndGet();
+            String key = String.valueOf(message);
+            if (errorSamples.size() < MAX_ERROR_KINDS || errorSamples.containsKey(key)) {
+                errorSamples.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.booking.booking.benchmark;
+
+import com.booking.booking.util.HmacSigner;
+import com.booking.booking.util.VnpayUtil;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost per payment signature before and after {@link HmacSigner}: the {@code legacy*} methods reproduce the previous
+ * code (a new {@link Mac} per call, {@code String.format} hex, two stream passes over the VNPay parameters).
+ * <p>
+ * Run with {@code mvn -Ppayment-benchmark test-compile exec:java}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentSignerBenchmark {
+
+    private static final String MOMO_KEY = "K951B6PE1waDMi640xX08PD3vg6EkVlz";
+    private static final String VNPAY_KEY = "HJF2G7EHCHPX0K3KHG3E2X4DW0H1WQ8M";
+
+    private final HmacSigner momoSigner = new HmacSigner("HmacSHA256", MOMO_KEY);
+    private final HmacSigner vnpaySigner = new HmacSigner("HmacSHA512", VNPAY_KEY);
+
+    private String momoRaw;
+    private Map<String, String> vnpayParams;
+
+    @Setup
+    public void setUp() {
+        momoRaw = "accessKey=F8BBA842ECF85&amount=1250000&extraData=S2jDtG5nIGPDsyBraHV54bq/biBtw6Np"
+                + "&ipnUrl=https://booking.example.vn/api/payment/momo-ipn&orderId=BK20251019ABCD"
+                + "&orderInfo=Thanh toán hóa đơn: BK20251019ABCD&partnerCode=MOMO&redirectUrl=https://booking.example.vn"
+                + "/api/payment/momo-return&requestId=6a1c2f0e-9f4b-4a7e-8f1d-2b8f3c4d5e6f&requestType=captureWallet";
+
+        vnpayParams = new HashMap<>();
+        vnpayParams.put("vnp_Version", "2.1.0");
+        vnpayParams.put("vnp_Command", "pay");
+        vnpayParams.put("vnp_TmnCode", "T350LZGW");
+        vnpayParams.put("vnp_CurrCode", "VND");
+        vnpayParams.put("vnp_OrderType", "other");
+        vnpayParams.put("vnp_Locale", "vn");
+        vnpayParams.put("vnp_ReturnUrl", "https://booking.example.vn/api/payment/vnpay-return");
+        vnpayParams.put("vnp_CreateDate", "20251019103000");
+        vnpayParams.put("vnp_ExpireDate", "20251019104500");
+        vnpayParams.put("vnp_Amount", "125000000");
+        vnpayParams.put("vnp_TxnRef", "BK20251019ABCD");
+        vnpayParams.put("vnp_OrderInfo", "Thanh toán đơn hàng:BK20251019ABCD");
+        vnpayParams.put("vnp_IpAddr", "203.113.135.10");
+        vnpayParams.put("vnp_BankCode", "NCB");
+    }
+
+    @Benchmark
+    public String momoLegacy() throws Exception {
+        Mac hmac = Mac.getInstance("HmacSHA256");
+        hmac.init(new SecretKeySpec(MOMO_KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return org.apache.commons.codec.binary.Hex.encodeHexString(hmac.doFinal(momoRaw.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String momo() {
+        return momoSigner.sign(momoRaw);
+    }
+
+    @Benchmark
+    public String vnpayLegacy() throws Exception {
+        String query = legacyPaymentUrl(vnpayParams, true);
+        String hashData = legacyPaymentUrl(vnpayParams, false);
+        return query + "&vnp_SecureHash=" + legacyHmacSHA512(VNPAY_KEY, hashData);
+    }
+
+    @Benchmark
+    public String vnpay() {
+        VnpayUtil.CanonicalQuery query = VnpayUtil.canonicalQuery(vnpayParams);
+        return query.query() + "&vnp_SecureHash=" + vnpaySigner.sign(query.hashData());
+    }
+
+    private static String legacyHmacSHA512(String key, String data) throws Exception {
+        Mac hmac512 = Mac.getInstance("HmacSHA512");
+        hmac512.init(new SecretKeySpec(key.getBytes(), "HmacSHA512"));
+        byte[] result = hmac512.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(2 * result.length);
+        for (byte b : result) {
+            sb.append(String.format("%02x", b & 0xff));
+        }
+        return sb.toString();
+    }
+
+    private static String legacyPaymentUrl(Map<String, String> paramsMap, boolean encodeKey) {
+        return paramsMap.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty())
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> (encodeKey ? URLEncoder.encode(entry.getKey(), StandardCharsets.US_ASCII) : entry.getKey())
+                        + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.US_ASCII))
+                .collect(Collectors.joining("&"));
+    }
+}
@@ -0,0 +1,218 @@
+package com.booking.booking.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.booking.booking.common.TypeRoom;
+import com.booking.booking.model.Hotel;
+import com.booking.booking.model.Room;
+import com.booking.booking.repository.RoomRepository;
+import com.booking.booking.service.HotelDocumentRenderer;
+import com.booking.booking.service.HotelRAGService;
+import com.booking.booking.util.LocationRecognizer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Offline retrieval benchmark for {@link HotelRAGService}: renders the fixture hotels with the production
+ * {@link HotelDocumentRenderer}, indexes them into a {@link SimpleVectorStore} backed by {@link HashingEmbeddingModel}
+ * and replays the golden questions.
+ * <p>
+ * Reports recall@5, MRR and p50/p99 latency of the embed, search and filter stages, and exits with status 1 when
+ * recall@5 or MRR drops below the thresholds stored in the golden file.
+ * <p>
+ * Run with {@code mvn -Prag-benchmark test-compile exec:java [-Dexec.args="golden-v1.json 50"]}.
+ */
+public class RagRetrievalBenchmark {
+
+    private static final String FIXTURES = "rag-benchmark/";
+    private static final int K = 5;
+    private static final int WARMUP = 5;
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        String goldenFile = args.length > 0 ? args[0] : "golden-v1.json";
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode catalog = read(mapper, "hotels.json");
+        JsonNode golden = read(mapper, goldenFile);
+
+        List<Hotel> hotels = new ArrayList<>();
+        Set<Long> availableHotelIds = new HashSet<>();
+        for (JsonNode node : catalog.get("hotels")) {
+            Hotel hotel = toHotel(node);
+            hotels.add(hotel);
+            for (JsonNode room : node.get("rooms")) {
+                if (room.path("available").asBoolean(true) && !room.path("booked").asBoolean(false)) {
+                    availableHotelIds.add(hotel.getId());
+                }
+            }
+        }
+
+        HashingEmbeddingModel embeddingModel = new HashingEmbeddingModel();
+        long[] searchNanos = new long[1];
+        SimpleVectorStore vectorStore = new SimpleVectorStore(SimpleVectorStore.builder(embeddingModel)) {
+            @Override
+            public List<Document> doSimilaritySearch(SearchRequest request) {
+                long start = System.nanoTime();
+                try {
+                    return super.doSimilaritySearch(request);
+                } finally {
+                    searchNanos[0] += System.nanoTime() - start;
+                }
+            }
+        };
+
+        LocationRecognizer locationRecognizer = new LocationRecognizer();
+        List<Document> documents = new HotelDocumentRenderer(locationRecognizer).render(hotels);
+        long indexStart = System.nanoTime();
+        vectorStore.add(documents);
+        System.out.printf("Indexed %d documents from %d hotels in %.1f ms%n",
+                documents.size(), hotels.size(), (System.nanoTime() - indexStart) / 1e6);
+        embeddingModel.takeNanos();
+
+        HotelRAGService ragService = new HotelRAGService(vectorStore, locationRecognizer, availability(availableHotelIds));
+
+        List<Long> embedTimes = new ArrayList<>();
+        List<Long> searchTimes = new ArrayList<>();
+        List<Long> filterTimes = new ArrayList<>();
+        double recallSum = 0;
+        double reciprocalRankSum = 0;
+        int questions = 0;
+
+        System.out.printf("%n%-5s %-4s %-45s %-9s %-6s %s%n", "id", "lang", "question", "recall@5", "RR", "returned");
+        for (JsonNode q : golden.get("questions")) {
+            String question = q.get("question").asText().toLowerCase().trim();
+            List<Long> expected = new ArrayList<>();
+            q.get("expected").forEach(id -> expected.add(id.asLong()));
+
+            List<Long> returned = List.of();
+            for (int i = 0; i < WARMUP + iterations; i++) {
+                embeddingModel.takeNanos();
+                searchNanos[0] = 0;
+                long start = System.nanoTime();
+                List<HotelRAGService.HotelSuggestionDTO> answer = ragService.searchAndAnswer(question);
+                long total = System.nanoTime() - start;
+                long embed = embeddingModel.takeNanos();
+                long search = searchNanos[0];
+                if (i >= WARMUP) {
+                    embedTimes.add(embed);
+                    searchTimes.add(search - embed);
+                    filterTimes.add(total - search);
+                }
+                returned = answer.stream().map(HotelRAGService.HotelSuggestionDTO::getId).toList();
+            }
+
+            double recall = recallAtK(expected, returned);
+            double reciprocalRank = reciprocalRank(expected, returned);
+            recallSum += recall;
+            reciprocalRankSum += reciprocalRank;
+            questions++;
+            System.out.printf("%-5s %-4s %-45s %-9.2f %-6.2f %s%n", q.get("id").asText(), q.get("lang").asText(),
+                    abbreviate(question), recall, reciprocalRank, returned);
+        }
+
+        double recallAt5 = recallSum / questions;
+        double mrr = reciprocalRankSum / questions;
+        System.out.printf("%nGolden set v%d, %d questions, %d iterations each%n",
+                golden.get("version").asInt(), questions, iterations);
+        System.out.printf("recall@%d = %.3f%nMRR      = %.3f%n", K, recallAt5, mrr);
+        System.out.printf("%n%-8s %10s %10s%n", "stage", "p50 (us)", "p99 (us)");
+        printLatency("embed", embedTimes);
+        printLatency("search", searchTimes);
+        printLatency("filter", filterTimes);
+
+        JsonNode thresholds = golden.path("thresholds");
+        double minRecall = thresholds.path("recallAt5").asDouble(0);
+        double minMrr = thresholds.path("mrr").asDouble(0);
+        if (recallAt5 < minRecall || mrr < minMrr) {
+            System.out.printf("%nREGRESSION: expected recall@%d >= %.3f and MRR >= %.3f%n", K, minRecall, minMrr);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Answers the live availability query from the fixture instead of the database.
+     */
+    @SuppressWarnings("unchecked")
+    private static RoomRepository availability(Set<Long> availableHotelIds) {
+        return (RoomRepository) Proxy.newProxyInstance(RoomRepository.class.getClassLoader(),
+                new Class<?>[]{RoomRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findHotelIdsWithAvailableRooms")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return ((Collection<Long>) args[0]).stream().filter(availableHotelIds::contains).toList();
+                });
+    }
+
+    private static JsonNode read(ObjectMapper mapper, String name) throws Exception {
+        try (InputStream in = new ClassPathResource(FIXTURES + name).getInputStream()) {
+            return mapper.readTree(in);
+        }
+    }
+
+    private static Hotel toHotel(JsonNode node) {
+        Hotel hotel = new Hotel();
+        hotel.setId(node.get("id").asLong());
+        hotel.setName(node.get("name").asText());
+        hotel.setProvince(node.get("province").asText());
+        hotel.setDistrict(node.get("district").asText());
+        hotel.setAddressDetail(node.get("addressDetail").asText());
+        hotel.setStarRating(node.get("starRating").asDouble());
+        hotel.setDeleted(node.path("deleted").asBoolean(false));
+        for (JsonNode r : node.get("rooms")) {
+            Room room = new Room();
+            room.setId(r.get("id").asLong());
+            room.setTypeRoom(TypeRoom.valueOf(r.get("type").asText()));
+            room.setPricePerNight(r.get("pricePerNight").asDouble());
+            room.setCapacity(r.get("capacity").asInt());
+            room.setAvailable(r.path("available").asBoolean(true));
+            room.setHotel(hotel);
+            hotel.getRooms().add(room);
+        }
+        hotel.setTotalRooms(hotel.getRooms().size());
+        return hotel;
+    }
+
+    private static double recallAtK(List<Long> expected, List<Long> returned) {
+        List<Long> top = returned.subList(0, Math.min(K, returned.size()));
+        long hits = expected.stream().filter(top::contains).count();
+        return (double) hits / Math.min(K, expected.size());
+    }
+
+    private static double reciprocalRank(List<Long> expected, List<Long> returned) {
+        for (int i = 0; i < returned.size(); i++) {
+            if (expected.contains(returned.get(i))) {
+                return 1.0 / (i + 1);
+            }
+        }
+        return 0;
+    }
+
+    private static void printLatency(String stage, List<Long> nanos) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        System.out.printf("%-8s %10.1f %10.1f%n", stage, percentile(sorted, 0.50) / 1e3, percentile(sorted, 0.99) / 1e3);
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= 45 ? text : text.substring(0, 42) + "...";
+    }
+}
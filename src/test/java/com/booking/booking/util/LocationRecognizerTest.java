@@ -0,0 +1,71 @@
+package com.booking.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocationRecognizerTest {
+
+    private final LocationRecognizer recognizer = new LocationRecognizer();
+
+    @Test
+    void matchesAccentedAndUnaccentedSpellings() {
+        assertEquals(Set.of("đà nẵng"), recognizer.recognize("Khách sạn ở Đà Nẵng"));
+        assertEquals(Set.of("đà nẵng"), recognizer.recognize("khach san o da nang"));
+        assertEquals(Set.of("đà nẵng"), recognizer.recognize("DANANG gần biển"));
+    }
+
+    @Test
+    void rejectsAccentsThatDisagreeWithTheAlias() {
+        assertTrue(recognizer.recognize("đá năng").isEmpty());
+        assertTrue(recognizer.recognize("hoa huệ trắng").isEmpty());
+    }
+
+    @Test
+    void acceptsAccentOnlyAliasesOnlyWhenAccented() {
+        assertEquals(Set.of("thừa thiên huế"), recognizer.recognize("Homestay ở Huế"));
+        assertTrue(recognizer.recognize("homestay o hue").isEmpty());
+
+        assertEquals(Set.of("quảng ninh"), recognizer.recognize("đi đảo Cô Tô"));
+        assertTrue(recognizer.recognize("co to khong").isEmpty());
+        assertTrue(recognizer.recognize("có tổ chức tour không").isEmpty());
+
+        assertEquals(Set.of("lào cai"), recognizer.recognize("chợ phiên Bắc Hà"));
+        assertTrue(recognizer.recognize("bac ha").isEmpty());
+    }
+
+    @Test
+    void requiresWordBoundaries() {
+        assertTrue(recognizer.recognize("thuế phòng bao nhiêu").isEmpty());
+        assertTrue(recognizer.recognize("hanoians").isEmpty());
+        assertTrue(recognizer.recognize("hcmc").isEmpty());
+        assertEquals(Set.of("tp. hồ chí minh"), recognizer.recognize("phòng ở hcm, giá rẻ"));
+    }
+
+    @Test
+    void prefersTheLongestOverlappingAlias() {
+        assertEquals(Set.of("ninh thuận"), recognizer.recognize("phan rang tháp chàm"));
+        assertEquals(Set.of("quảng ninh"), recognizer.recognize("du thuyền vịnh hạ long"));
+    }
+
+    @Test
+    void returnsLocationsInOrderOfAppearance() {
+        assertEquals(List.of("quảng nam", "đà nẵng"), List.copyOf(recognizer.recognize("Hội An hay Đà Nẵng?")));
+    }
+
+    @Test
+    void doesNotReadCommonWordsAsPlaces() {
+        assertEquals(Set.of("lâm đồng"), recognizer.recognize("Đà Lạt là gì"));
+    }
+
+    @Test
+    void provinceKeyFoldsTheCanonicalName() {
+        assertEquals("tp ho chi minh", recognizer.provinceKey("Thành phố Hồ Chí Minh", null));
+        assertEquals("lam dong", recognizer.provinceKey("Tỉnh khác", "Đà Lạt"));
+        assertEquals("tinh khac", recognizer.provinceKey("Tỉnh khác", "Quận lạ"));
+    }
+}